@@ -0,0 +1,26 @@
+package com.cleanme.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CLEANER_PROFILES = "cleanerProfiles";
+
+    // Evictions issued inside a transaction are applied after it commits, so a concurrent read
+    // cannot put the pre-update profile back into the cache.
+    @Bean
+    public CacheManager cacheManager(@Value("${cleanme.cache.cleaner-profiles:maximumSize=5000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(CLEANER_PROFILES);
+        caffeine.setCacheSpecification(spec);
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -1,14 +1,26 @@
 package com.cleanme.controller;
 
 import com.cleanme.dto.CleanerDetailsDto;
+import com.cleanme.dto.CleanerMonthlyStatsDto;
 import com.cleanme.dto.CleanerUpdateRequest;
+import com.cleanme.dto.CursorPage;
 import com.cleanme.dto.FilterDto;
 import com.cleanme.dto.ReservationDto;
+import com.cleanme.dto.ReservationHistoryFilter;
+import com.cleanme.enums.CleanerListSort;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.service.CalendarService;
 import com.cleanme.service.CleanerService;
+import com.cleanme.service.CleanerStatsService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,12 +31,25 @@ import java.util.UUID;
 public class CleanerController {
 
     private final CleanerService cleanerService;
+    private final CalendarService calendarService;
+    private final CleanerStatsService cleanerStatsService;
 
     @GetMapping
     public ResponseEntity<List<CleanerDetailsDto>> getAllCleaners() {
         return ResponseEntity.ok(cleanerService.getAllCleaners());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<CleanerDetailsDto>> getCleanersPage(@RequestParam(defaultValue = "UID") CleanerListSort sort,
+                                                                         @RequestParam(required = false) Integer size,
+                                                                         @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(cleanerService.getCleanersPage(sort, size, cursor));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CleanerDetailsDto> getCleanerById(@PathVariable UUID id) {
         try {
@@ -47,11 +72,57 @@ public class CleanerController {
 
     @GetMapping("/filter")
     public ResponseEntity<List<CleanerDetailsDto>> filterCleaners(@RequestBody FilterDto filter) {
-        return ResponseEntity.ok(cleanerService.filterCleaners(filter));
+        try {
+            return ResponseEntity.ok(cleanerService.filterCleaners(filter));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CleanerDetailsDto>> searchCleaners(@RequestParam String q,
+                                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(cleanerService.searchCleanersByText(q, limit));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}/reservations")
     public ResponseEntity<List<ReservationDto>> getCleanerReservations(@PathVariable UUID id) {
         return ResponseEntity.ok(cleanerService.getCleanerReservations(id));
     }
+
+    // Per-month reservation counts by status and estimated earnings, e.g. ?from=2025-01&to=2025-06
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<List<CleanerMonthlyStatsDto>> getCleanerStats(@PathVariable UUID id,
+                                                                        @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                                        @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            return ResponseEntity.ok(cleanerStatsService.getMonthlyStats(id, from, to));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Subscribable iCalendar feed; polling clients that send If-None-Match or If-Modified-Since get a 304
+    @GetMapping(value = "/{id}/calendar.ics", produces = "text/calendar")
+    public void getCleanerCalendar(@PathVariable UUID id, ServletWebRequest request, HttpServletResponse response) throws IOException {
+        CalendarService.FeedVersion version = calendarService.getCleanerFeedVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return;
+        }
+        response.setContentType("text/calendar;charset=UTF-8");
+        calendarService.writeCleanerFeed(id, response.getWriter());
+    }
+
+    @GetMapping("/{id}/reservations/page")
+    public ResponseEntity<CursorPage<ReservationDto>> getCleanerReservationsPage(@PathVariable UUID id, ReservationHistoryFilter filter) {
+        try {
+            return ResponseEntity.ok(cleanerService.getCleanerReservationsPage(id, filter));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
\ No newline at end of file
@@ -1,19 +1,36 @@
 package com.cleanme.controller;
 
+import com.cleanme.dto.CreateRecurringReservationDto;
 import com.cleanme.dto.CreateReservationDto;
+import com.cleanme.dto.CursorPage;
 import com.cleanme.dto.ReservationDto;
+import com.cleanme.dto.ReservationHistoryFilter;
 import com.cleanme.dto.UpdateReservationDto;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.exception.PreconditionFailedException;
+import com.cleanme.service.CalendarService;
+import com.cleanme.service.IdempotencyService;
 import com.cleanme.service.ReservationService;
 import com.cleanme.utilities.SecurityUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 
@@ -24,7 +41,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ReservationController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ReservationService reservationService;
+    private final CalendarService calendarService;
+    private final IdempotencyService idempotencyService;
     private final SecurityUtils securityUtils;
 
     @GetMapping("/all")
@@ -33,23 +54,98 @@ public class ReservationController {
         return reservationService.getReservations(userId);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<ReservationDto>> getReservationsPage(ReservationHistoryFilter filter, Authentication auth) {
+        UUID userId = securityUtils.extractUserId(auth);
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsPage(userId, filter));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Subscribable iCalendar feed; polling clients that send If-None-Match or If-Modified-Since get a 304
+    @GetMapping(value = "/calendar.ics", produces = "text/calendar")
+    public void getCalendar(Authentication auth, ServletWebRequest request, HttpServletResponse response) throws IOException {
+        UUID userId = securityUtils.extractUserId(auth);
+        CalendarService.FeedVersion version = calendarService.getClientFeedVersion(userId);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return;
+        }
+        response.setContentType("text/calendar;charset=UTF-8");
+        calendarService.writeClientFeed(userId, response.getWriter());
+    }
+
     @GetMapping("/{id}")
-    public ReservationDto getReservation(@PathVariable UUID id){
-        return this.reservationService.getReservation(id);
+    public ResponseEntity<ReservationDto> getReservation(@PathVariable UUID id){
+        ReservationDto reservation = this.reservationService.getReservation(id);
+        return ResponseEntity.ok().eTag(eTag(reservation)).body(reservation);
     }
 
+    // A retry carrying the same Idempotency-Key gets the first response back instead of booking again
     @PostMapping()
-    public ResponseEntity<ReservationDto> createReservation(@Valid @RequestBody CreateReservationDto dto, Authentication auth){
+    public ResponseEntity<ReservationDto> createReservation(@Valid @RequestBody CreateReservationDto dto,
+                                                            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                                            Authentication auth){
         UUID userId = securityUtils.extractUserId(auth);
-        ReservationDto reservation = reservationService.createReservation(userId, dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        try {
+            ReservationDto reservation = idempotencyService.execute(userId, "POST /reservation", idempotencyKey, dto,
+                    ReservationDto.class, () -> reservationService.createReservation(userId, dto));
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
+    @PostMapping("/series")
+    public ResponseEntity<List<ReservationDto>> createRecurringReservations(@Valid @RequestBody CreateRecurringReservationDto dto, Authentication auth){
+        UUID userId = securityUtils.extractUserId(auth);
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createRecurringReservations(userId, dto));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // With If-Match (the ETag of an earlier GET or PUT) the update is rejected with 412 if anyone changed
+    // the reservation since; without it a concurrent edit still cannot be overwritten and gets a 409
     @PutMapping("/{id}")
-    public ResponseEntity<ReservationDto> updateReservation(@PathVariable UUID id, @Valid @RequestBody UpdateReservationDto dto, Authentication auth){
+    public ResponseEntity<ReservationDto> updateReservation(@PathVariable UUID id, @Valid @RequestBody UpdateReservationDto dto,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                            Authentication auth){
         UUID userId = securityUtils.extractUserId(auth);
-        ReservationDto updateReservationDto = reservationService.updateReservationDto(id, userId, dto);
-        return ResponseEntity.ok(updateReservationDto);
+        Long expectedVersion;
+        try {
+            expectedVersion = parseIfMatch(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        try {
+            ReservationDto updateReservationDto = reservationService.updateReservationDto(id, userId, dto, expectedVersion);
+            return ResponseEntity.ok().eTag(eTag(updateReservationDto)).body(updateReservationDto);
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // Status-only transition; retried on the server when it races with another edit
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<ReservationDto> changeStatus(@PathVariable UUID id, @RequestParam ReservationStatus status, Authentication auth){
+        UUID userId = securityUtils.extractUserId(auth);
+        try {
+            ReservationDto reservation = reservationService.changeStatus(id, userId, status);
+            return ResponseEntity.ok().eTag(eTag(reservation)).body(reservation);
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -70,4 +166,43 @@ public class ReservationController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/booked-times/{cleanerId}/range")
+    public ResponseEntity<Map<LocalDate, List<LocalTime>>> getBookedTimeSlots(@PathVariable UUID cleanerId,
+                                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(reservationService.getBookedTimeSlots(cleanerId, from, to));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static String eTag(ReservationDto reservation) {
+        return "\"" + reservation.getVersion() + "\"";
+    }
+
+    // "*" or no header means any version; weak validators are accepted since versions are exact anyway
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return Long.parseLong(tag.replace("\"", ""));
+    }
+
+    @GetMapping("/free-slots/{cleanerId}")
+    public ResponseEntity<Map<LocalDate, List<LocalTime>>> getFreeSlots(@PathVariable UUID cleanerId,
+                                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                       @RequestParam(required = false) Integer granularity) {
+        try {
+            return ResponseEntity.ok(reservationService.getFreeSlots(cleanerId, from, to, granularity));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
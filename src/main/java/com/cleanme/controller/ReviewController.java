@@ -1,11 +1,16 @@
 package com.cleanme.controller;
 
 import com.cleanme.dto.BookingWithReviewDto;
+import com.cleanme.dto.CursorPage;
 import com.cleanme.dto.EditReviewDto;
 import com.cleanme.dto.ReviewDto;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.service.IdempotencyService;
 import com.cleanme.service.ReviewService;
 import com.cleanme.utilities.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -20,17 +25,29 @@ import java.util.UUID;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final IdempotencyService idempotencyService;
     private final SecurityUtils securityUtils;
 
+    // A retry carrying the same Idempotency-Key gets the first review back instead of posting it twice
     @PostMapping("/{reservationId}")
     public ResponseEntity<ReviewDto> reviewReservation(@PathVariable UUID reservationId,
-                                                       @RequestBody ReviewDto reviewDto) {
+                                                       @RequestBody ReviewDto reviewDto,
+                                                       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                       Authentication auth) {
         System.out.println("KAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAADIIIIIIIIIIIIR");
         System.out.println(reviewDto);
         System.out.println("KAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAADIIIIIIIIIIIIR");
 
-        ReviewDto savedReview = this.reviewService.reviewReservation(reservationId, reviewDto);
-        return ResponseEntity.ok(savedReview);
+        UUID userId = securityUtils.extractUserId(auth);
+        try {
+            ReviewDto savedReview = idempotencyService.execute(userId, "POST /review/" + reservationId, idempotencyKey, reviewDto,
+                    ReviewDto.class, () -> this.reviewService.reviewReservation(reservationId, reviewDto));
+            return ResponseEntity.ok(savedReview);
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     @GetMapping("/cleaner/{cleanerId}")
@@ -39,6 +56,17 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    @GetMapping("/cleaner/{cleanerId}/page")
+    public ResponseEntity<CursorPage<ReviewDto>> getReviewsForCleanerPage(@PathVariable UUID cleanerId,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(reviewService.getReviewsForCleanerPage(cleanerId, size, cursor));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<ReviewDto>> getUserReviews(@PathVariable UUID userId) {
         List<ReviewDto> reviews = reviewService.getAllReviewsByUser(userId);
@@ -52,6 +80,18 @@ public class ReviewController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/reviews/bookings/page")
+    public ResponseEntity<CursorPage<BookingWithReviewDto>> getBookingsWithReviewsPage(@RequestParam(required = false) Integer size,
+                                                                                       @RequestParam(required = false) String cursor,
+                                                                                       Authentication auth) {
+        UUID userId = securityUtils.extractUserId(auth);
+        try {
+            return ResponseEntity.ok(reviewService.getBookingsWithReviewsPage(userId, size, cursor));
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/update/{reviewId}")
     public ResponseEntity<?> updateReview(@PathVariable UUID reviewId, @RequestBody EditReviewDto editReviewDto) {
         System.out.println("-----------------------------------------------------------------------------------------------------------------------------");
@@ -59,7 +99,11 @@ public class ReviewController {
         System.out.println(editReviewDto);
         System.out.println("-----------------------------------------------------------------------------------------------------------------------------");
 
-        reviewService.updateReview(reviewId, editReviewDto);
+        try {
+            reviewService.updateReview(reviewId, editReviewDto);
+        } catch (BusinessLogicException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        }
         return ResponseEntity.ok().body(Map.of("success", true));
     }
 
@@ -22,4 +22,22 @@ public class CleanerDetailsDto {
     private BigDecimal hourlyRate;
     private List<Map<String, CleanerSetupRequest.TimeRange>> availability;
     private List<String> bio;
+    // null until the cleaner has a review
+    private Double averageRating;
+    private long reviewCount;
+    // number of reviews per star (1-5); only filled in on the single-cleaner profile
+    private Map<Integer, Long> ratingHistogram;
+
+    // Used by the projection queries; availability is filled in separately from the slot rows
+    public CleanerDetailsDto(UUID id, String firstName, String lastName, String email,
+                             String servicesOffered, BigDecimal hourlyRate, List<String> bio) {
+        this(id, firstName, lastName, email, servicesOffered, hourlyRate, null, bio);
+    }
+
+    // Profile without ratings; CleanerService adds them from the rating aggregate
+    public CleanerDetailsDto(UUID id, String firstName, String lastName, String email, String servicesOffered,
+                             BigDecimal hourlyRate, List<Map<String, CleanerSetupRequest.TimeRange>> availability,
+                             List<String> bio) {
+        this(id, firstName, lastName, email, servicesOffered, hourlyRate, availability, bio, null, 0, null);
+    }
 }
\ No newline at end of file
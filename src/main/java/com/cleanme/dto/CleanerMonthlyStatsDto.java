@@ -0,0 +1,20 @@
+package com.cleanme.dto;
+
+import com.cleanme.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CleanerMonthlyStatsDto {
+    private YearMonth month;
+    private Map<ReservationStatus, Long> reservations;
+    // finished bookings times the booking length at the cleaner's current hourly rate; null without a rate
+    private BigDecimal estimatedEarnings;
+}
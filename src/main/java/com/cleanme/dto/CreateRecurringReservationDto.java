@@ -0,0 +1,35 @@
+package com.cleanme.dto;
+
+import com.cleanme.enums.RecurrenceFrequency;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateRecurringReservationDto {
+    @NotNull
+    private UUID cleanerId;
+    // date of the first occurrence; later ones fall on the same weekday
+    @NotNull
+    private LocalDate startDate;
+    @NotNull
+    private LocalTime time;
+    @NotNull
+    private String location;
+    private String comment;
+    @NotNull
+    private RecurrenceFrequency frequency;
+    @NotNull
+    @Min(1)
+    @Max(52)
+    private Integer occurrences;
+}
@@ -1,5 +1,6 @@
 package com.cleanme.dto;
 
+import com.cleanme.enums.CleanerSort;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -9,4 +10,11 @@ public class FilterDto {
     private BigDecimal minRate;
     private BigDecimal maxRate;
     private String availability;
+    // Optional time-of-day window, e.g. "14:00" to "17:00"; a cleaner matches when one of their slots contains it
+    private String from;
+    private String to;
+    // Optional ranking; with a sort or size only the requested page (0-based) is returned
+    private CleanerSort sort;
+    private Integer page;
+    private Integer size;
 }
\ No newline at end of file
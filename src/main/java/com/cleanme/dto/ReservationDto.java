@@ -10,6 +10,7 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @AllArgsConstructor
+@NoArgsConstructor
 public class ReservationDto {
     private UUID rid;
     private LocalDate date;
@@ -20,6 +21,13 @@ public class ReservationDto {
     private String cleanerName;
     private String clientName;
     private String clientPhone;
+    // optimistic-lock version; sent back as If-Match to update exactly this state
+    private Long version;
+
+    public ReservationDto(UUID rid, LocalDate date, LocalTime time, String location, ReservationStatus status,
+                          String comment, String cleanerName, String clientName, String clientPhone) {
+        this(rid, date, time, location, status, comment, cleanerName, clientName, clientPhone, null);
+    }
 
     public LocalDate getDate() {
         return date;
@@ -56,4 +64,8 @@ public class ReservationDto {
     public String getClientPhone() {
         return clientPhone;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
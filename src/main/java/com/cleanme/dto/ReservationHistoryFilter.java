@@ -0,0 +1,22 @@
+package com.cleanme.dto;
+
+import com.cleanme.enums.ReservationStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// Query parameters of the paginated reservation history; every filter is optional
+@Data
+public class ReservationHistoryFilter {
+    // e.g. ?status=PENDING&status=CONFIRMED; empty means any status
+    private Set<ReservationStatus> status;
+    // inclusive bounds on the reservation date
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private Integer size;
+    private String cursor;
+}
@@ -1,17 +1,22 @@
 package com.cleanme.entity;
 
 import com.cleanme.dto.auth.CleanerSetupRequest;
-import com.cleanme.utilities.AvailabilityConverter;
+import com.cleanme.utilities.AvailabilityMapper;
 import com.cleanme.utilities.BioConverter;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "cleaner_details")
+@Table(name = "cleaner_details", indexes = {
+        @Index(name = "idx_cleaner_details_hourly_rate", columnList = "hourly_rate, cleaner_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,11 +36,34 @@ public class CleanerDetailsEntity {
     @Column(name = "hourly_rate")
     private BigDecimal hourlyRate;
 
-    @Column(name = "availability")
-    @Convert(converter = AvailabilityConverter.class)
-    private List<Map<String, CleanerSetupRequest.TimeRange>> availability;
+    @ElementCollection
+    @CollectionTable(
+            name = "cleaner_availability",
+            joinColumns = @JoinColumn(name = "cleaner_details_id"),
+            indexes = @Index(name = "idx_cleaner_availability_day", columnList = "day_of_week, cleaner_details_id")
+    )
+    @BatchSize(size = 100)
+    private List<AvailabilitySlot> availabilitySlots = new ArrayList<>();
 
     @Column(name = "bio")
     @Convert(converter = BioConverter.class)
     private List<String> bio;
+
+    // Compatibility accessors in the API shape: [{"Monday": {"from": "09:00", "to": "17:00"}}]
+
+    public List<Map<String, CleanerSetupRequest.TimeRange>> getAvailability() {
+        return availabilitySlots != null ? AvailabilityMapper.toDto(availabilitySlots) : null;
+    }
+
+    public void setAvailability(List<Map<String, CleanerSetupRequest.TimeRange>> availability) {
+        List<AvailabilitySlot> slots = AvailabilityMapper.toSlots(availability);
+        if (availabilitySlots == null) {
+            availabilitySlots = slots;
+        } else {
+            // keep Hibernate's managed collection instead of swapping in a new one. The list is an unordered
+            // bag, so any change still deletes and re-inserts all of the cleaner's rows; that is a handful at most
+            availabilitySlots.clear();
+            availabilitySlots.addAll(slots);
+        }
+    }
 }
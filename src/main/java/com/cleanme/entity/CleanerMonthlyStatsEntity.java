@@ -0,0 +1,50 @@
+package com.cleanme.entity;
+
+import com.cleanme.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Number of a cleaner's reservations per month and status. Maintained incrementally by upserts in the
+ * transactions that write reservations, so stats are read without touching the reservations table.
+ */
+@Entity
+@Table(name = "cleaner_monthly_stats")
+@IdClass(CleanerMonthlyStatsEntity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanerMonthlyStatsEntity {
+
+    @Id
+    @Column(name = "cleaner_id")
+    private UUID cleanerId;
+
+    // first day of the month
+    @Id
+    @Column(name = "month")
+    private LocalDate month;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ReservationStatus status;
+
+    @Column(name = "reservation_count", nullable = false)
+    private long reservationCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID cleanerId;
+        private LocalDate month;
+        private ReservationStatus status;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cleanme.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Review totals of one cleaner: count, rating sum and a 1-5 star histogram. Maintained by upserts in the
+ * transactions that write reviews, so a cleaner's rating is one primary-key read.
+ */
+@Entity
+@Table(name = "cleaner_rating_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleanerRatingStatsEntity {
+
+    @Id
+    @Column(name = "cleaner_id")
+    private UUID cleanerId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+}
@@ -0,0 +1,60 @@
+package com.cleanme.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response of a completed create request, stored under the client's Idempotency-Key so a retry gets the
+ * same response instead of a second write. Rows live until {@code expiresAt} and are then purged.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@IdClass(IdempotencyKeyEntity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKeyEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    // the endpoint the key was used on, so one key cannot replay another endpoint's response
+    @Id
+    @Column(name = "scope", length = 100)
+    private String scope;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to reject a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // null until the request that claimed the key has finished; never visible as null once committed
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private String scope;
+        private String idempotencyKey;
+    }
+}
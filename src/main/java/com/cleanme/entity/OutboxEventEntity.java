@@ -0,0 +1,63 @@
+package com.cleanme.entity;
+
+import com.cleanme.enums.ReservationEventType;
+import com.cleanme.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * A reservation change waiting to be delivered to the event consumers. Rows are inserted in the
+ * transaction that changed the reservation and deleted once every consumer has handled them.
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_available_at", columnList = "available_at"))
+@Data
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ReservationEventType type;
+
+    // copied rather than referenced: a DELETED event outlives its reservation
+    @Column(name = "reservation_id", nullable = false)
+    private UUID reservationId;
+
+    @Column(name = "client_id")
+    private UUID clientId;
+
+    @Column(name = "cleaner_id")
+    private UUID cleanerId;
+
+    @Column(name = "date")
+    private LocalDate date;
+
+    @Column(name = "time")
+    private LocalTime time;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ReservationStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // not claimable before this; pushed forward while a dispatcher holds the event and after failures
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+}
@@ -9,7 +9,8 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations",
+        indexes = @Index(name = "idx_reservations_cleaner_date_status", columnList = "cleaner, date, status"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class ReservationEntity {
@@ -27,7 +28,8 @@ public class ReservationEntity {
     @JoinColumn(name = "cleaner", nullable = false)
     private UsersEntity cleaner;
 
-    @Column(name = "date")
+    // partition key of the reservations table (V1_16)
+    @Column(name = "date", nullable = false)
     private LocalDate date;
 
     @Column(name = "time")
@@ -43,6 +45,11 @@ public class ReservationEntity {
     @Column(name = "comment")
     private String comment;
 
+    // optimistic lock: every update checks and increments it, so concurrent edits cannot overwrite each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public void setRid(UUID rid) {
         this.rid = rid;
     }
@@ -106,6 +113,10 @@ public class ReservationEntity {
     public String getComment() {
         return comment;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
 
 
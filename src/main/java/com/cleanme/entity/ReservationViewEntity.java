@@ -0,0 +1,91 @@
+package com.cleanme.entity;
+
+import com.cleanme.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Read model of a reservation with the client's and cleaner's display fields copied in, so listings
+ * are served from this one table. Written by ReservationService in the same transaction as the
+ * reservation itself and by UserService when a name or phone number changes.
+ */
+@Entity
+@Table(name = "reservation_view",
+        indexes = {
+                @Index(name = "idx_reservation_view_client", columnList = "client_id, date, time, rid"),
+                @Index(name = "idx_reservation_view_cleaner", columnList = "cleaner_id, date, time, rid")
+        })
+@Data
+public class ReservationViewEntity implements Persistable<UUID> {
+
+    // same value as the reservation's RID
+    @Id
+    @Column(name = "rid")
+    private UUID rid;
+
+    @Column(name = "client_id", nullable = false)
+    private UUID clientId;
+
+    @Column(name = "cleaner_id", nullable = false)
+    private UUID cleanerId;
+
+    @Column(name = "date")
+    private LocalDate date;
+
+    @Column(name = "time")
+    private LocalTime time;
+
+    @Column(name = "location")
+    private String location;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ReservationStatus status;
+
+    @Column(name = "comment")
+    private String comment;
+
+    @Column(name = "cleaner_name")
+    private String cleanerName;
+
+    @Column(name = "client_name")
+    private String clientName;
+
+    @Column(name = "client_phone")
+    private String clientPhone;
+
+    // the reservation's optimistic-lock version, served as its ETag
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // bumped on every write to the row; drives the calendar feeds' Last-Modified
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // The id is assigned, so Spring Data cannot tell a new row from an existing one and would merge,
+    // selecting the row first. Rows built for a new reservation set this and are persisted directly.
+    @Transient
+    private boolean newRow;
+
+    @Override
+    public UUID getId() {
+        return rid;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        newRow = false;
+    }
+}
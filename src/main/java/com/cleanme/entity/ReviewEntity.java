@@ -18,8 +18,11 @@ public class ReviewEntity {
     @Column(name = "id")
     private UUID id;
 
-    @OneToOne
-    @JoinColumn(name = "reservation_id", nullable = false, unique = true)
+    // lazy and without a foreign key: the reservation row may have been moved to reservations_archive,
+    // while the id is still readable from the proxy
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id", nullable = false, unique = true,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private ReservationEntity reservation;
 
     @ManyToOne
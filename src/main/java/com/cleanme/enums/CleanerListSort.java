@@ -0,0 +1,6 @@
+package com.cleanme.enums;
+
+public enum CleanerListSort {
+    UID,
+    HOURLY_RATE
+}
@@ -0,0 +1,7 @@
+package com.cleanme.enums;
+
+public enum CleanerSort {
+    PRICE_ASC,
+    RATING_DESC,
+    POPULARITY
+}
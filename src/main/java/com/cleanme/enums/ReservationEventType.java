@@ -0,0 +1,7 @@
+package com.cleanme.enums;
+
+public enum ReservationEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
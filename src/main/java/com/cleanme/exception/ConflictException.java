@@ -0,0 +1,15 @@
+package com.cleanme.exception;
+
+/**
+ * Custom exception thrown when a write collides with existing state, e.g. a slot that is already booked
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
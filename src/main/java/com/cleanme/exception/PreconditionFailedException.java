@@ -0,0 +1,15 @@
+package com.cleanme.exception;
+
+/**
+ * Custom exception thrown when a conditional write targets a version the resource no longer has
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
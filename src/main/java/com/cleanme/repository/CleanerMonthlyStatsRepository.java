@@ -0,0 +1,38 @@
+package com.cleanme.repository;
+
+import com.cleanme.entity.CleanerMonthlyStatsEntity;
+import com.cleanme.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CleanerMonthlyStatsRepository extends JpaRepository<CleanerMonthlyStatsEntity, CleanerMonthlyStatsEntity.Key> {
+
+    // Atomic increment (or decrement) of one counter; concurrent writers serialize on the row only
+    @Modifying
+    @Query(value = "INSERT INTO cleaner_monthly_stats (cleaner_id, month, status, reservation_count) " +
+            "VALUES (:cleanerId, :month, :status, :delta) " +
+            "ON CONFLICT (cleaner_id, month, status) " +
+            "DO UPDATE SET reservation_count = cleaner_monthly_stats.reservation_count + EXCLUDED.reservation_count",
+            nativeQuery = true)
+    void adjust(@Param("cleanerId") UUID cleanerId, @Param("month") LocalDate month,
+                @Param("status") String status, @Param("delta") long delta);
+
+    // One row per month and status with any reservations, so the read is O(months) whatever the history
+    @Query("SELECT s.month AS month, s.status AS status, SUM(s.reservationCount) AS reservationCount " +
+            "FROM CleanerMonthlyStatsEntity s WHERE s.cleanerId = :cleanerId AND s.month BETWEEN :from AND :to " +
+            "GROUP BY s.month, s.status HAVING SUM(s.reservationCount) > 0 ORDER BY s.month")
+    List<MonthlyCountRow> findMonthlyCounts(@Param("cleanerId") UUID cleanerId,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface MonthlyCountRow {
+        LocalDate getMonth();
+        ReservationStatus getStatus();
+        long getReservationCount();
+    }
+}
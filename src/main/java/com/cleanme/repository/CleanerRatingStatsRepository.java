@@ -0,0 +1,31 @@
+package com.cleanme.repository;
+
+import com.cleanme.entity.CleanerRatingStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface CleanerRatingStatsRepository extends JpaRepository<CleanerRatingStatsEntity, UUID> {
+
+    String STARS = "CASE WHEN :rating = 1 THEN :delta ELSE 0 END, CASE WHEN :rating = 2 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 3 THEN :delta ELSE 0 END, CASE WHEN :rating = 4 THEN :delta ELSE 0 END, " +
+            "CASE WHEN :rating = 5 THEN :delta ELSE 0 END";
+
+    // Adds (delta 1) or removes (delta -1) one rating; concurrent reviews of a cleaner serialize on their row only
+    @Modifying
+    @Query(value = "INSERT INTO cleaner_rating_stats (cleaner_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) " +
+            "VALUES (:cleanerId, :delta, :delta * :rating, " + STARS + ") " +
+            "ON CONFLICT (cleaner_id) DO UPDATE SET " +
+            "review_count = cleaner_rating_stats.review_count + EXCLUDED.review_count, " +
+            "rating_sum = cleaner_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+            "stars_1 = cleaner_rating_stats.stars_1 + EXCLUDED.stars_1, " +
+            "stars_2 = cleaner_rating_stats.stars_2 + EXCLUDED.stars_2, " +
+            "stars_3 = cleaner_rating_stats.stars_3 + EXCLUDED.stars_3, " +
+            "stars_4 = cleaner_rating_stats.stars_4 + EXCLUDED.stars_4, " +
+            "stars_5 = cleaner_rating_stats.stars_5 + EXCLUDED.stars_5",
+            nativeQuery = true)
+    void adjust(@Param("cleanerId") UUID cleanerId, @Param("rating") int rating, @Param("delta") int delta);
+}
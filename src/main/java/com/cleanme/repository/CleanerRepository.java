@@ -2,19 +2,24 @@ package com.cleanme.repository;
 
 import com.cleanme.entity.CleanerDetailsEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface CleanerRepository extends JpaRepository<CleanerDetailsEntity, UUID> {
+public interface CleanerRepository extends JpaRepository<CleanerDetailsEntity, UUID>,
+        JpaSpecificationExecutor<CleanerDetailsEntity> {
     boolean existsByCleaner_Uid(UUID cleanerId);
     Optional<CleanerDetailsEntity> findByCleaner_Uid(UUID cleanerId);
     
     // Optimized queries to eliminate N+1 problems
-    @Query("SELECT cd FROM CleanerDetailsEntity cd JOIN FETCH cd.cleaner u WHERE u.userType = 'CLEANER'")
+    @Query("SELECT DISTINCT cd FROM CleanerDetailsEntity cd JOIN FETCH cd.cleaner u LEFT JOIN FETCH cd.availabilitySlots WHERE u.userType = 'CLEANER'")
     List<CleanerDetailsEntity> findAllCleanersWithDetails();
     
     @Query("SELECT cd FROM CleanerDetailsEntity cd JOIN FETCH cd.cleaner u WHERE cd.cleaner.uid = :cleanerId")
@@ -22,4 +27,22 @@ public interface CleanerRepository extends JpaRepository<CleanerDetailsEntity, U
     
     @Query("SELECT cd FROM CleanerDetailsEntity cd JOIN FETCH cd.cleaner u WHERE u.uid IN :cleanerIds")
     List<CleanerDetailsEntity> findByCleanerUidsWithUsers(@Param("cleanerIds") List<UUID> cleanerIds);
+
+    @Query("SELECT u.uid AS cleanerId, s.dayOfWeek AS dayOfWeek, s.startTime AS startTime, s.endTime AS endTime " +
+            "FROM CleanerDetailsEntity cd JOIN cd.cleaner u JOIN cd.availabilitySlots s WHERE u.userType = 'CLEANER'")
+    List<CleanerSlotRow> findAllCleanerSlots();
+
+    @Query("SELECT u.uid AS cleanerId, s.dayOfWeek AS dayOfWeek, s.startTime AS startTime, s.endTime AS endTime " +
+            "FROM CleanerDetailsEntity cd JOIN cd.cleaner u JOIN cd.availabilitySlots s WHERE u.uid = :cleanerId")
+    List<CleanerSlotRow> findSlotsByCleaner(@Param("cleanerId") UUID cleanerId);
+
+    @Query("SELECT cd.hourlyRate FROM CleanerDetailsEntity cd WHERE cd.cleaner.uid = :cleanerId")
+    Optional<BigDecimal> findHourlyRateByCleanerUid(@Param("cleanerId") UUID cleanerId);
+
+    interface CleanerSlotRow {
+        UUID getCleanerId();
+        DayOfWeek getDayOfWeek();
+        LocalTime getStartTime();
+        LocalTime getEndTime();
+    }
 }
\ No newline at end of file
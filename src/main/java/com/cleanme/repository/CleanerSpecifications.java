@@ -0,0 +1,84 @@
+package com.cleanme.repository;
+
+import com.cleanme.entity.AvailabilitySlot;
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.UserType;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria predicates for searching {@link CleanerDetailsEntity} rows in the database.
+ */
+public final class CleanerSpecifications {
+
+    private CleanerSpecifications() {
+    }
+
+    /**
+     * Restricts to users of type CLEANER and fetches the user row in the same query.
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<CleanerDetailsEntity> isCleaner() {
+        return (root, query, cb) -> {
+            From<CleanerDetailsEntity, UsersEntity> cleaner;
+            if (Long.class == query.getResultType() || long.class == query.getResultType()) {
+                cleaner = root.join("cleaner", JoinType.INNER);
+            } else {
+                cleaner = (Join<CleanerDetailsEntity, UsersEntity>) root.<CleanerDetailsEntity, UsersEntity>fetch("cleaner", JoinType.INNER);
+            }
+            return cb.equal(cleaner.get("userType"), UserType.CLEANER);
+        };
+    }
+
+    public static Specification<CleanerDetailsEntity> hourlyRateAtLeast(BigDecimal minRate) {
+        return (root, query, cb) -> minRate == null ? null : cb.greaterThanOrEqualTo(root.get("hourlyRate"), minRate);
+    }
+
+    public static Specification<CleanerDetailsEntity> hourlyRateAtMost(BigDecimal maxRate) {
+        return (root, query, cb) -> maxRate == null ? null : cb.lessThanOrEqualTo(root.get("hourlyRate"), maxRate);
+    }
+
+    /**
+     * Matches cleaners with at least one availability slot on the given day (name, any case) that contains
+     * the window {@code [from, to]}. Either part may be null. Runs as an EXISTS probe on the
+     * (day_of_week, cleaner_details_id) index.
+     */
+    public static Specification<CleanerDetailsEntity> availableDuring(String day, LocalTime from, LocalTime to) {
+        return (root, query, cb) -> {
+            if (day == null && from == null) {
+                return null;
+            }
+            Subquery<Integer> slots = query.subquery(Integer.class);
+            Root<CleanerDetailsEntity> correlated = slots.correlate(root);
+            Join<CleanerDetailsEntity, AvailabilitySlot> slot = correlated.join("availabilitySlots");
+
+            List<Predicate> conditions = new ArrayList<>();
+            if (day != null) {
+                try {
+                    conditions.add(cb.equal(slot.get("dayOfWeek"), DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT))));
+                } catch (IllegalArgumentException e) {
+                    return cb.disjunction();
+                }
+            }
+            if (from != null) {
+                conditions.add(cb.lessThanOrEqualTo(slot.get("startTime"), from));
+                conditions.add(cb.greaterThanOrEqualTo(slot.get("endTime"), to));
+            }
+            slots.select(cb.literal(1)).where(conditions.toArray(new Predicate[0]));
+            return cb.exists(slots);
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package com.cleanme.repository;
 
+import com.cleanme.dto.FavouriteDto;
 import com.cleanme.entity.FavouriteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -9,7 +12,19 @@ import java.util.UUID;
 public interface FavouriteRepository extends JpaRepository<FavouriteEntity, UUID> {
     List<FavouriteEntity> findByClient_Uid(UUID clientId);
 
+    @Query("SELECT new com.cleanme.dto.FavouriteDto(c.uid, CONCAT(c.firstName, ' ', c.lastName)) " +
+            "FROM FavouriteEntity f JOIN f.cleaner c WHERE f.client.uid = :clientId")
+    List<FavouriteDto> findDtosByClientUid(@Param("clientId") UUID clientId);
+
     boolean existsByClient_UidAndCleaner_Uid(UUID clientId, UUID cleanerId);
 
     void deleteByClient_UidAndCleaner_Uid(UUID clientId, UUID cleanerId);
+
+    @Query("SELECT f.cleaner.uid AS cleanerId, COUNT(f) AS favouriteCount FROM FavouriteEntity f GROUP BY f.cleaner.uid")
+    List<CleanerFavouriteCount> countByCleaner();
+
+    interface CleanerFavouriteCount {
+        UUID getCleanerId();
+        Long getFavouriteCount();
+    }
 }
@@ -0,0 +1,41 @@
+package com.cleanme.repository;
+
+import com.cleanme.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, IdempotencyKeyEntity.Key> {
+
+    // Claims the key with an empty response, taking over a row that has expired but not been purged yet.
+    // Returns 0 when the key is held. A concurrent claim of the same key blocks here until the other
+    // transaction ends, so at most one request per key runs its write.
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, scope, idempotency_key, request_hash, response_body, created_at, expires_at) " +
+            "VALUES (:userId, :scope, :key, :requestHash, NULL, :createdAt, :expiresAt) " +
+            "ON CONFLICT (user_id, scope, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at <= EXCLUDED.created_at", nativeQuery = true)
+    int claim(@Param("userId") UUID userId,
+              @Param("scope") String scope,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.responseBody = :responseBody " +
+            "WHERE k.userId = :userId AND k.scope = :scope AND k.idempotencyKey = :key")
+    int complete(@Param("userId") UUID userId,
+                 @Param("scope") String scope,
+                 @Param("key") String key,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,18 @@
+package com.cleanme.repository;
+
+import com.cleanme.entity.OutboxEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, UUID> {
+
+    // Rows locked by another dispatcher are skipped rather than waited on, so instances drain disjoint batches
+    @Query(value = "SELECT * FROM outbox_events WHERE available_at <= :now " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventEntity> claimAvailable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,12 +1,14 @@
 package com.cleanme.repository;
 
-
 import com.cleanme.entity.ReservationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,4 +31,78 @@ public interface ReservationRepository extends JpaRepository<ReservationEntity,
     
     @Query("SELECT r FROM ReservationEntity r JOIN FETCH r.cleaner WHERE r.cleaner.uid = :cleanerId AND r.date = :date")
     List<ReservationEntity> findByCleanerUidAndDateWithDetails(@Param("cleanerId") UUID cleanerId, @Param("date") LocalDate date);
+
+    // cancelled reservations do not hold their slot
+    String ACTIVE = "(r.status IS NULL OR r.status <> com.cleanme.enums.ReservationStatus.CANCELLED)";
+
+    // Same filter as above over a date range, reading only (date, time) through idx_reservations_cleaner_date_status
+    @Query("SELECT r.date AS date, r.time AS time FROM ReservationEntity r " +
+            "WHERE r.cleaner.uid = :cleanerId AND r.date BETWEEN :from AND :to " +
+            "AND " + ACTIVE + " ORDER BY r.date, r.time")
+    List<BookedSlotRow> findBookedSlots(@Param("cleanerId") UUID cleanerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COUNT(r) > 0 FROM ReservationEntity r WHERE r.cleaner.uid = :cleanerId " +
+            "AND r.date = :date AND r.time = :time AND " + ACTIVE)
+    boolean existsActiveBooking(@Param("cleanerId") UUID cleanerId, @Param("date") LocalDate date, @Param("time") LocalTime time);
+
+    @Query("SELECT COUNT(r) > 0 FROM ReservationEntity r WHERE r.cleaner.uid = :cleanerId " +
+            "AND r.date = :date AND r.time = :time AND r.rid <> :rid AND " + ACTIVE)
+    boolean existsOtherActiveBooking(@Param("cleanerId") UUID cleanerId, @Param("date") LocalDate date,
+                                     @Param("time") LocalTime time, @Param("rid") UUID rid);
+
+    @Query("SELECT r.date FROM ReservationEntity r WHERE r.cleaner.uid = :cleanerId " +
+            "AND r.time = :time AND r.date IN :dates AND " + ACTIVE + " ORDER BY r.date")
+    List<LocalDate> findActiveBookingDates(@Param("cleanerId") UUID cleanerId, @Param("time") LocalTime time,
+                                           @Param("dates") Collection<LocalDate> dates);
+
+    // Lifecycle transitions (ReservationLifecycleJob), one bounded chunk per call. Rows are claimed with
+    // FOR UPDATE SKIP LOCKED so concurrent runs on other nodes take disjoint chunks. reservation_view and
+    // cleaner_monthly_stats are updated, and an UPDATED outbox event per reservation is written, in the same
+    // statement. The version is bumped like a JPA update would, so a client editing a reservation the job
+    // just moved gets a version conflict. Returns the number of reservations moved.
+    String MONTH = "date_trunc('month', date)::date";
+    String STATS_UPSERT = " ON CONFLICT (cleaner_id, month, status) DO UPDATE " +
+            "SET reservation_count = cleaner_monthly_stats.reservation_count + EXCLUDED.reservation_count";
+    String MOVE_BATCH = "synced AS (UPDATE reservation_view v SET status = :target, version = v.version + 1, updated_at = now() " +
+            "FROM batch WHERE v.rid = batch.rid), " +
+            "counted_out AS (INSERT INTO cleaner_monthly_stats (cleaner_id, month, status, reservation_count) " +
+            "SELECT cleaner, " + MONTH + ", status, -COUNT(*) FROM batch GROUP BY cleaner, " + MONTH + ", status" + STATS_UPSERT + "), " +
+            "counted_in AS (INSERT INTO cleaner_monthly_stats (cleaner_id, month, status, reservation_count) " +
+            "SELECT cleaner, " + MONTH + ", :target, COUNT(*) FROM batch GROUP BY cleaner, " + MONTH + STATS_UPSERT + "), " +
+            "notified AS (INSERT INTO outbox_events (id, type, reservation_id, client_id, cleaner_id, date, time, status, " +
+            "created_at, available_at, attempts) SELECT gen_random_uuid(), 'UPDATED', rid, user_id, cleaner, date, time, :target, " +
+            "LOCALTIMESTAMP, LOCALTIMESTAMP, 0 FROM batch) " +
+            "UPDATE reservations r SET status = :target, version = r.version + 1 FROM batch WHERE r.rid = batch.rid AND r.date = batch.date";
+
+    @Modifying
+    @Query(value = "WITH batch AS (SELECT rid, user_id, cleaner, date, time, status FROM reservations " +
+            "WHERE status IN ('CONFIRMED', 'ONGOING') AND (date < :cutoffDate OR (date = :cutoffDate AND time <= :cutoffTime)) " +
+            "ORDER BY date, time LIMIT :limit FOR UPDATE SKIP LOCKED), " + MOVE_BATCH, nativeQuery = true)
+    int finishEndedBefore(@Param("cutoffDate") LocalDate cutoffDate, @Param("cutoffTime") LocalTime cutoffTime,
+                          @Param("limit") int limit, @Param("target") String target);
+
+    @Modifying
+    @Query(value = "WITH batch AS (SELECT rid, user_id, cleaner, date, time, status FROM reservations " +
+            "WHERE status = 'PENDING' AND (date < :cutoffDate OR (date = :cutoffDate AND time <= :cutoffTime)) " +
+            "ORDER BY date, time LIMIT :limit FOR UPDATE SKIP LOCKED), " + MOVE_BATCH, nativeQuery = true)
+    int expirePendingStartedBefore(@Param("cutoffDate") LocalDate cutoffDate, @Param("cutoffTime") LocalTime cutoffTime,
+                                   @Param("limit") int limit, @Param("target") String target);
+
+    // Partition maintenance (ReservationPartitionJob) through the functions defined in V1_16. They run DDL,
+    // so callers need a read-write transaction.
+    @Query(value = "SELECT ensure_reservation_partitions(:firstMonth, :months)", nativeQuery = true)
+    int ensurePartitions(@Param("firstMonth") LocalDate firstMonth, @Param("months") int months);
+
+    // Monthly partitions still attached to reservations, oldest first
+    @Query(value = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'reservations'::regclass AND c.relname LIKE 'reservations\\_p%' ORDER BY c.relname", nativeQuery = true)
+    List<String> findPartitionNames();
+
+    @Query(value = "SELECT archive_reservation_partition(:month)", nativeQuery = true)
+    boolean archivePartition(@Param("month") LocalDate month);
+
+    interface BookedSlotRow {
+        LocalDate getDate();
+        LocalTime getTime();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.cleanme.repository;
+
+import com.cleanme.dto.ReservationDto;
+import com.cleanme.entity.ReservationViewEntity;
+import com.cleanme.enums.ReservationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Reservation listings read from the denormalized reservation_view table: no joins, one index range scan per query
+public interface ReservationViewRepository extends JpaRepository<ReservationViewEntity, UUID> {
+
+    String RESERVATION_DTO = "SELECT new com.cleanme.dto.ReservationDto(v.rid, v.date, v.time, v.location, v.status, " +
+            "v.comment, v.cleanerName, v.clientName, v.clientPhone, v.version) FROM ReservationViewEntity v ";
+
+    @Query(RESERVATION_DTO + "WHERE v.clientId = :clientId")
+    List<ReservationDto> findDtosByClientId(@Param("clientId") UUID clientId);
+
+    @Query(RESERVATION_DTO + "WHERE v.cleanerId = :cleanerId")
+    List<ReservationDto> findDtosByCleanerId(@Param("cleanerId") UUID cleanerId);
+
+    @Query(RESERVATION_DTO + "WHERE v.rid = :rid")
+    Optional<ReservationDto> findDtoByRid(@Param("rid") UUID rid);
+
+    // Keyset pages of a history, newest first, through idx_reservation_view_client and idx_reservation_view_cleaner.
+    // Pass every status and anyStatus = true when not filtering by status; legacy rows without a status
+    // then still show up.
+    // Legacy rows without a date or time have no place in the (date, time, rid) order and are left out of
+    // every keyset page on purpose; the unpaged listings still return them.
+    String KEYSET_ROWS = "AND v.date IS NOT NULL AND v.time IS NOT NULL ";
+    String HISTORY_FILTER = "AND (v.status IN :statuses OR (:anyStatus = TRUE AND v.status IS NULL)) " +
+            "AND v.date BETWEEN :from AND :to " + KEYSET_ROWS;
+    String HISTORY_AFTER = "AND (v.date < :afterDate OR (v.date = :afterDate AND (v.time < :afterTime " +
+            "OR (v.time = :afterTime AND v.rid < :afterRid)))) ";
+    String HISTORY_ORDER = "ORDER BY v.date DESC, v.time DESC, v.rid DESC";
+
+    @Query(RESERVATION_DTO + "WHERE v.clientId = :clientId " + HISTORY_FILTER + HISTORY_ORDER)
+    List<ReservationDto> findClientHistoryFirstPage(@Param("clientId") UUID clientId,
+                                                    @Param("statuses") Collection<ReservationStatus> statuses, @Param("anyStatus") boolean anyStatus,
+                                                    @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                    Pageable pageable);
+
+    @Query(RESERVATION_DTO + "WHERE v.clientId = :clientId " + HISTORY_FILTER + HISTORY_AFTER + HISTORY_ORDER)
+    List<ReservationDto> findClientHistoryAfter(@Param("clientId") UUID clientId,
+                                                @Param("statuses") Collection<ReservationStatus> statuses, @Param("anyStatus") boolean anyStatus,
+                                                @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                @Param("afterDate") LocalDate afterDate, @Param("afterTime") LocalTime afterTime,
+                                                @Param("afterRid") UUID afterRid, Pageable pageable);
+
+    @Query(RESERVATION_DTO + "WHERE v.cleanerId = :cleanerId " + HISTORY_FILTER + HISTORY_ORDER)
+    List<ReservationDto> findCleanerHistoryFirstPage(@Param("cleanerId") UUID cleanerId,
+                                                     @Param("statuses") Collection<ReservationStatus> statuses, @Param("anyStatus") boolean anyStatus,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                     Pageable pageable);
+
+    @Query(RESERVATION_DTO + "WHERE v.cleanerId = :cleanerId " + HISTORY_FILTER + HISTORY_AFTER + HISTORY_ORDER)
+    List<ReservationDto> findCleanerHistoryAfter(@Param("cleanerId") UUID cleanerId,
+                                                 @Param("statuses") Collection<ReservationStatus> statuses, @Param("anyStatus") boolean anyStatus,
+                                                 @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                 @Param("afterDate") LocalDate afterDate, @Param("afterTime") LocalTime afterTime,
+                                                 @Param("afterRid") UUID afterRid, Pageable pageable);
+
+    // A client's bookings with their review, if any, newest first: one range of idx_reservation_view_client
+    // plus a probe of the unique reviews.reservation_id index per row, so at most one row per booking
+    String BOOKING_WITH_REVIEW = "SELECT v.rid AS rid, v.date AS date, v.time AS time, v.location AS location, " +
+            "v.comment AS comment, v.status AS status, v.cleanerId AS cleanerId, v.cleanerName AS cleanerName, " +
+            "rv.id AS reviewId, rv.rating AS rating, rv.comment AS reviewComment, rv.date AS reviewDate " +
+            "FROM ReservationViewEntity v LEFT JOIN ReviewEntity rv ON rv.reservation.rid = v.rid ";
+
+    @Query(BOOKING_WITH_REVIEW + "WHERE v.clientId = :clientId " + HISTORY_ORDER)
+    List<BookingReviewRow> findBookingsWithReviews(@Param("clientId") UUID clientId);
+
+    @Query(BOOKING_WITH_REVIEW + "WHERE v.clientId = :clientId " + KEYSET_ROWS + HISTORY_ORDER)
+    List<BookingReviewRow> findBookingsWithReviewsFirstPage(@Param("clientId") UUID clientId, Pageable pageable);
+
+    @Query(BOOKING_WITH_REVIEW + "WHERE v.clientId = :clientId " + KEYSET_ROWS + HISTORY_AFTER + HISTORY_ORDER)
+    List<BookingReviewRow> findBookingsWithReviewsAfter(@Param("clientId") UUID clientId,
+                                                        @Param("afterDate") LocalDate afterDate, @Param("afterTime") LocalTime afterTime,
+                                                        @Param("afterRid") UUID afterRid, Pageable pageable);
+
+    // Copies a user's new display fields into every row naming them
+    @Modifying
+    @Query("UPDATE ReservationViewEntity v SET v.clientName = :name, v.clientPhone = :phone, v.updatedAt = :updatedAt " +
+            "WHERE v.clientId = :clientId")
+    int updateClient(@Param("clientId") UUID clientId, @Param("name") String name, @Param("phone") String phone,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE ReservationViewEntity v SET v.cleanerName = :name, v.updatedAt = :updatedAt WHERE v.cleanerId = :cleanerId")
+    int updateCleaner(@Param("cleanerId") UUID cleanerId, @Param("name") String name, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Calendar feeds: rows are streamed from a database cursor as projections, so neither the result list
+    // nor managed entities pile up while the response is written
+    String CALENDAR_ROW = "SELECT v.rid AS rid, v.date AS date, v.time AS time, v.location AS location, v.status AS status, " +
+            "v.comment AS comment, v.cleanerName AS cleanerName, v.clientName AS clientName, v.updatedAt AS updatedAt " +
+            "FROM ReservationViewEntity v ";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CALENDAR_ROW + "WHERE v.cleanerId = :cleanerId AND v.date >= :since ORDER BY v.date, v.time")
+    Stream<CalendarRow> streamCleanerCalendar(@Param("cleanerId") UUID cleanerId, @Param("since") LocalDate since);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CALENDAR_ROW + "WHERE v.clientId = :clientId AND v.date >= :since ORDER BY v.date, v.time")
+    Stream<CalendarRow> streamClientCalendar(@Param("clientId") UUID clientId, @Param("since") LocalDate since);
+
+    // Validators for conditional feed requests: one aggregate over the same index range as the feed
+    @Query("SELECT COUNT(v) AS count, MAX(v.updatedAt) AS lastModified FROM ReservationViewEntity v " +
+            "WHERE v.cleanerId = :cleanerId AND v.date >= :since")
+    CalendarVersion findCleanerCalendarVersion(@Param("cleanerId") UUID cleanerId, @Param("since") LocalDate since);
+
+    @Query("SELECT COUNT(v) AS count, MAX(v.updatedAt) AS lastModified FROM ReservationViewEntity v " +
+            "WHERE v.clientId = :clientId AND v.date >= :since")
+    CalendarVersion findClientCalendarVersion(@Param("clientId") UUID clientId, @Param("since") LocalDate since);
+
+    interface CalendarRow {
+        UUID getRid();
+        LocalDate getDate();
+        LocalTime getTime();
+        String getLocation();
+        ReservationStatus getStatus();
+        String getComment();
+        String getCleanerName();
+        String getClientName();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface BookingReviewRow {
+        UUID getRid();
+        LocalDate getDate();
+        LocalTime getTime();
+        String getLocation();
+        String getComment();
+        ReservationStatus getStatus();
+        UUID getCleanerId();
+        String getCleanerName();
+        // null when the booking has no review
+        UUID getReviewId();
+        Integer getRating();
+        String getReviewComment();
+        LocalDate getReviewDate();
+    }
+
+    interface CalendarVersion {
+        long getCount();
+        LocalDateTime getLastModified();
+    }
+}
@@ -1,9 +1,14 @@
 package com.cleanme.repository;
 
+import com.cleanme.dto.ReviewDto;
 import com.cleanme.entity.ReviewEntity;
 import com.cleanme.entity.UsersEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +16,19 @@ public interface ReviewRepository extends JpaRepository<ReviewEntity, UUID> {
     List<ReviewEntity> findByCleaner(UsersEntity cleaner);
     List<ReviewEntity> findByUser(UsersEntity user);
 
+    // Reads the ReviewDto columns straight into the DTO; the reservation and user ids come from the foreign keys
+    String REVIEW_DTO = "SELECT new com.cleanme.dto.ReviewDto(r.id, r.reservation.rid, c.uid, r.user.uid, r.rating, " +
+            "r.comment, r.date, CONCAT(c.firstName, ' ', c.lastName)) FROM ReviewEntity r JOIN r.cleaner c ";
+
+    // Keyset pages of a cleaner's reviews, newest first, in the order of idx_reviews_cleaner_feed
+    String FEED_AFTER = "AND (r.date < :afterDate OR (r.date = :afterDate AND r.id > :afterId)) ";
+    String FEED_ORDER = "ORDER BY r.date DESC, r.id ASC";
+
+    @Query(REVIEW_DTO + "WHERE c.uid = :cleanerId " + FEED_ORDER)
+    List<ReviewDto> findCleanerFeedFirstPage(@Param("cleanerId") UUID cleanerId, Pageable pageable);
+
+    @Query(REVIEW_DTO + "WHERE c.uid = :cleanerId " + FEED_AFTER + FEED_ORDER)
+    List<ReviewDto> findCleanerFeedAfter(@Param("cleanerId") UUID cleanerId,
+                                         @Param("afterDate") LocalDate afterDate, @Param("afterId") UUID afterId,
+                                         Pageable pageable);
 }
@@ -1,10 +1,14 @@
 package com.cleanme.repository;
 
+import com.cleanme.dto.CleanerDetailsDto;
 import com.cleanme.entity.UsersEntity;
 import com.cleanme.enums.UserType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,4 +21,29 @@ public interface UsersRepository extends JpaRepository<UsersEntity, UUID> {
     // OPTIMIZED: Get all cleaners with their details (LEFT JOIN to include cleaners without setup)
     @Query("SELECT u FROM UsersEntity u LEFT JOIN FETCH u.cleanerDetails WHERE u.userType = 'CLEANER'")
     List<UsersEntity> findAllCleanersWithDetails();
-}
\ No newline at end of file
+
+    // Reads the profile columns straight into DTOs; no entities are created or attached to the persistence context
+    @Query("SELECT new com.cleanme.dto.CleanerDetailsDto(u.uid, u.firstName, u.lastName, u.email, " +
+            "cd.servicesOffered, cd.hourlyRate, cd.bio) " +
+            "FROM UsersEntity u LEFT JOIN u.cleanerDetails cd WHERE u.userType = 'CLEANER'")
+    List<CleanerDetailsDto> findCleanerProfiles();
+
+    // Keyset pages over the same join: callers pass a Pageable of (page 0, size + 1) to detect a next page
+    @Query("SELECT u FROM UsersEntity u LEFT JOIN FETCH u.cleanerDetails WHERE u.userType = 'CLEANER' ORDER BY u.uid")
+    List<UsersEntity> findCleanersWithDetailsFirstPage(Pageable pageable);
+
+    @Query("SELECT u FROM UsersEntity u LEFT JOIN FETCH u.cleanerDetails WHERE u.userType = 'CLEANER' AND u.uid > :afterUid ORDER BY u.uid")
+    List<UsersEntity> findCleanersWithDetailsAfter(@Param("afterUid") UUID afterUid, Pageable pageable);
+
+    // Rate ordering only covers cleaners that have set a rate
+    @Query("SELECT u FROM UsersEntity u JOIN FETCH u.cleanerDetails cd WHERE u.userType = 'CLEANER' AND cd.hourlyRate IS NOT NULL " +
+            "ORDER BY cd.hourlyRate, u.uid")
+    List<UsersEntity> findCleanersWithDetailsByRateFirstPage(Pageable pageable);
+
+    @Query("SELECT u FROM UsersEntity u JOIN FETCH u.cleanerDetails cd WHERE u.userType = 'CLEANER' AND cd.hourlyRate IS NOT NULL " +
+            "AND (cd.hourlyRate > :afterRate OR (cd.hourlyRate = :afterRate AND u.uid > :afterUid)) " +
+            "ORDER BY cd.hourlyRate, u.uid")
+    List<UsersEntity> findCleanersWithDetailsByRateAfter(@Param("afterRate") BigDecimal afterRate,
+                                                         @Param("afterUid") UUID afterUid,
+                                                         Pageable pageable);
+}
@@ -0,0 +1,109 @@
+package com.cleanme.service;
+
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.repository.ReservationViewRepository;
+import com.cleanme.utilities.ICalendarWriter;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * iCalendar feeds of a cleaner's or client's reservations, for calendar apps that subscribe by URL.
+ * <p>
+ * Feeds are written row by row from a database cursor over reservation_view. Calendar apps poll, so
+ * each feed also has validators computed by one aggregate query: the ETag changes with any insert,
+ * update or delete in the feed's range, Last-Modified only with inserts and updates.
+ */
+@Service
+public class CalendarService {
+
+    private final ReservationViewRepository reservationViewRepository;
+    private final int bookingMinutes;
+    private final int pastDays;
+
+    public CalendarService(ReservationViewRepository reservationViewRepository,
+                           @Value("${cleanme.slots.booking-minutes:60}") int bookingMinutes,
+                           @Value("${cleanme.calendar.past-days:365}") int pastDays) {
+        this.reservationViewRepository = reservationViewRepository;
+        this.bookingMinutes = bookingMinutes;
+        this.pastDays = pastDays;
+    }
+
+    public FeedVersion getCleanerFeedVersion(UUID cleanerId) {
+        return version(reservationViewRepository.findCleanerCalendarVersion(cleanerId, since()));
+    }
+
+    public FeedVersion getClientFeedVersion(UUID clientId) {
+        return version(reservationViewRepository.findClientCalendarVersion(clientId, since()));
+    }
+
+    // The transaction keeps the connection, and with it the cursor, open while the feed is written
+    @Transactional
+    public void writeCleanerFeed(UUID cleanerId, Writer out) throws IOException {
+        try (Stream<ReservationViewRepository.CalendarRow> rows = reservationViewRepository.streamCleanerCalendar(cleanerId, since())) {
+            write("CleanMe bookings", rows, row -> "Cleaning for " + row.getClientName(), out);
+        }
+    }
+
+    @Transactional
+    public void writeClientFeed(UUID clientId, Writer out) throws IOException {
+        try (Stream<ReservationViewRepository.CalendarRow> rows = reservationViewRepository.streamClientCalendar(clientId, since())) {
+            write("CleanMe reservations", rows, row -> "Cleaning with " + row.getCleanerName(), out);
+        }
+    }
+
+    private void write(String name, Stream<ReservationViewRepository.CalendarRow> rows,
+                       Function<ReservationViewRepository.CalendarRow, String> summary,
+                       Writer out) throws IOException {
+        ICalendarWriter calendar = new ICalendarWriter(out);
+        calendar.begin(name);
+        try {
+            rows.filter(row -> row.getDate() != null && row.getTime() != null).forEach(row -> {
+                LocalDateTime start = row.getDate().atTime(row.getTime());
+                try {
+                    calendar.event(row.getRid() + "@cleanme", start, start.plusMinutes(bookingMinutes),
+                            row.getUpdatedAt(), eventStatus(row.getStatus()), summary.apply(row),
+                            row.getLocation(), row.getComment());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        calendar.end();
+    }
+
+    private LocalDate since() {
+        return LocalDate.now().minusDays(pastDays);
+    }
+
+    private static FeedVersion version(ReservationViewRepository.CalendarVersion version) {
+        LocalDateTime lastModified = version.getLastModified();
+        long millis = lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        return new FeedVersion("\"" + version.getCount() + "-" + millis + "\"", lastModified != null ? millis : -1);
+    }
+
+    static String eventStatus(ReservationStatus status) {
+        if (status == null || status == ReservationStatus.PENDING) {
+            return "TENTATIVE";
+        }
+        return status == ReservationStatus.CANCELLED ? "CANCELLED" : "CONFIRMED";
+    }
+
+    /**
+     * Validators of a feed; {@code lastModified} is epoch milliseconds, or -1 for an empty feed.
+     */
+    public record FeedVersion(String etag, long lastModified) {
+    }
+}
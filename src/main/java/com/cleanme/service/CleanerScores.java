@@ -0,0 +1,120 @@
+package com.cleanme.service;
+
+import com.cleanme.enums.CleanerSort;
+import com.cleanme.entity.CleanerRatingStatsEntity;
+import com.cleanme.repository.CleanerRatingStatsRepository;
+import com.cleanme.repository.FavouriteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-cleaner ranking inputs: review count, rating sum and favourite count.
+ * <p>
+ * Review totals are read from the cleaner_rating_stats aggregate and favourite counts with one GROUP BY
+ * query; both are then kept current by the review and favourite services as rows are written. A
+ * scheduled reload corrects any drift from writes that bypass them. Ranking reads one map entry per
+ * candidate and never touches the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class CleanerScores {
+
+    // a cleaner's average is pulled towards this rating until they have a few reviews
+    private static final double PRIOR_RATING = 3.5;
+    private static final double PRIOR_WEIGHT = 5;
+    private static final double RATING_SHARE = 0.6;
+    private static final double REVIEWS_SHARE = 0.25;
+    private static final double FAVOURITES_SHARE = 0.15;
+    // the count at which the review and favourite terms reach half their share
+    private static final double COUNT_HALF_POINT = 20;
+
+    private final CleanerRatingStatsRepository cleanerRatingStatsRepository;
+    private final FavouriteRepository favouriteRepository;
+
+    private volatile Map<UUID, Score> scores;
+
+    public Score get(UUID cleanerId) {
+        return loaded().getOrDefault(cleanerId, Score.NONE);
+    }
+
+    public void recordReview(UUID cleanerId, int rating) {
+        update(cleanerId, score -> new Score(score.reviewCount + 1, score.ratingSum + rating, score.favouriteCount));
+    }
+
+    public void replaceRating(UUID cleanerId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            update(cleanerId, score -> new Score(score.reviewCount, score.ratingSum - oldRating + newRating, score.favouriteCount));
+        }
+    }
+
+    public void recordFavourite(UUID cleanerId, int delta) {
+        update(cleanerId, score -> new Score(score.reviewCount, score.ratingSum, Math.max(0, score.favouriteCount + delta)));
+    }
+
+    @Scheduled(fixedDelayString = "${cleanme.ranking.refresh-interval-ms:900000}",
+            initialDelayString = "${cleanme.ranking.refresh-interval-ms:900000}")
+    public void refresh() {
+        Map<UUID, Score> fresh = new ConcurrentHashMap<>();
+        for (CleanerRatingStatsEntity totals : cleanerRatingStatsRepository.findAll()) {
+            fresh.put(totals.getCleanerId(), new Score(totals.getReviewCount(), totals.getRatingSum(), 0));
+        }
+        for (FavouriteRepository.CleanerFavouriteCount count : favouriteRepository.countByCleaner()) {
+            fresh.merge(count.getCleanerId(), new Score(0, 0, count.getFavouriteCount()),
+                    (reviews, favourites) -> new Score(reviews.reviewCount, reviews.ratingSum, favourites.favouriteCount));
+        }
+        scores = fresh;
+    }
+
+    private void update(UUID cleanerId, UnaryOperator<Score> change) {
+        Map<UUID, Score> current = scores;
+        if (current == null) {
+            return; // the first read loads the totals, including this write
+        }
+        current.compute(cleanerId, (id, score) -> change.apply(score != null ? score : Score.NONE));
+    }
+
+    private Map<UUID, Score> loaded() {
+        Map<UUID, Score> current = scores;
+        if (current == null) {
+            synchronized (this) {
+                if (scores == null) {
+                    refresh();
+                }
+                current = scores;
+            }
+        }
+        return current;
+    }
+
+    public record Score(long reviewCount, long ratingSum, long favouriteCount) {
+
+        static final Score NONE = new Score(0, 0, 0);
+
+        public double averageRating() {
+            return reviewCount > 0 ? (double) ratingSum / reviewCount : 0;
+        }
+
+        /**
+         * Sort key for the score-based orders, higher ranks first.
+         */
+        public double rankKey(CleanerSort sort) {
+            return sort == CleanerSort.POPULARITY ? popularity() : averageRating();
+        }
+
+        /**
+         * Blend of a smoothed rating, the number of reviews and the number of favourites, in [0, 1].
+         */
+        public double popularity() {
+            double smoothedRating = (PRIOR_RATING * PRIOR_WEIGHT + ratingSum) / (PRIOR_WEIGHT + reviewCount);
+            return RATING_SHARE * smoothedRating / 5
+                    + REVIEWS_SHARE * reviewCount / (reviewCount + COUNT_HALF_POINT)
+                    + FAVOURITES_SHARE * favouriteCount / (favouriteCount + COUNT_HALF_POINT);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CleanerDetailsDto;
+import com.cleanme.dto.FilterDto;
+import com.cleanme.entity.AvailabilitySlot;
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.CleanerSort;
+import com.cleanme.repository.CleanerRepository;
+import com.cleanme.utilities.AvailabilityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * In-process search index over cleaners that have completed their setup.
+ * <p>
+ * Hourly rates are kept in a sorted {@code long[]} (in cents) with a parallel array of entries,
+ * and every entry carries a 7-bit mask of the weekdays the cleaner works. A filter is a binary
+ * search for the lower rate bound, a scan up to the upper bound and a mask AND per candidate,
+ * without any database round trip.
+ * <p>
+ * Time-of-day windows are answered by one {@link IntervalIndex} per weekday over the cleaners'
+ * availability slots (in minutes of the day), so "Tuesday 14:00-17:00" only visits cleaners whose
+ * slot contains the window.
+ * <p>
+ * Rating and popularity orders read precomputed totals from {@link CleanerScores} and keep only the
+ * best {@code (page + 1) * size} matches in a bounded heap.
+ * <p>
+ * Readers work on an immutable snapshot; writers copy it under a lock. The index is loaded with a
+ * single join query once the application is ready and then kept current by {@link #upsert} and
+ * {@link #updateProfile}. Until then {@link #isReady()} is false and callers query the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class CleanerSearchIndex {
+
+    private static final long NO_RATE = Long.MIN_VALUE;
+
+    private final CleanerRepository cleanerRepository;
+    private final CleanerScores scores;
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        loaded();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Returns the cleaners matching {@code filter}. Without a sort or page size every match is returned
+     * in rate order; otherwise only the requested page is ranked, using a heap bounded by its last position.
+     */
+    public List<CleanerDetailsDto> search(FilterDto filter) {
+        Snapshot current = loaded();
+
+        DayOfWeek day = null;
+        if (filter.getAvailability() != null) {
+            day = parseDay(filter.getAvailability());
+            if (day == null) {
+                return List.of();
+            }
+        }
+        AvailabilityMapper.TimeWindow window = AvailabilityMapper.parseWindow(filter.getFrom(), filter.getTo());
+
+        boolean rateBounded = filter.getMinRate() != null || filter.getMaxRate() != null;
+        long lo = filter.getMinRate() != null ? toCents(filter.getMinRate(), RoundingMode.CEILING)
+                : rateBounded ? NO_RATE + 1 : NO_RATE;
+        long hi = filter.getMaxRate() != null ? toCents(filter.getMaxRate(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        CleanerSort sort = filter.getSort();
+        boolean paged = sort != null || filter.getSize() != null;
+        int pageSize = paged ? CleanerService.clampPageSize(filter.getSize()) : Integer.MAX_VALUE;
+        int offset = paged ? CleanerService.clampPage(filter.getPage()) * pageSize : 0;
+        int wanted = paged ? offset + pageSize : Integer.MAX_VALUE;
+        TopK top = new TopK(wanted);
+
+        if (window != null) {
+            int from = minuteOfDay(window.from());
+            int to = minuteOfDay(window.to());
+            Set<Entry> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DayOfWeek candidate : day != null ? EnumSet.of(day) : EnumSet.allOf(DayOfWeek.class)) {
+                current.byDay[candidate.ordinal()].forEachContaining(from, to, entry -> {
+                    if (entry.rateCents >= lo && entry.rateCents <= hi) {
+                        matches.add(entry);
+                    }
+                });
+            }
+            for (Entry entry : matches) {
+                top.offer(rank(entry, sort));
+            }
+            return page(top.sorted(), offset);
+        }
+
+        // without a day filter, cleaners with no availability at all still match
+        int dayMask = day != null ? dayBit(day) : 0;
+        boolean rateOrder = sort == null || sort == CleanerSort.PRICE_ASC;
+        List<Ranked> ranked = new ArrayList<>();
+        long[] rates = current.rates;
+        for (int i = lowerBound(rates, lo); i < rates.length && rates[i] <= hi; i++) {
+            Entry entry = current.byRate[i];
+            if (dayMask != 0 && (entry.dayMask & dayMask) == 0) {
+                continue;
+            }
+            if (!rateOrder) {
+                top.offer(rank(entry, sort));
+            } else {
+                // the scan already runs in price order, so it can stop at the end of the page
+                ranked.add(new Ranked(entry, 0, 0));
+                if (ranked.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return page(rateOrder ? ranked : top.sorted(), offset);
+    }
+
+    private static List<CleanerDetailsDto> page(List<Ranked> ranked, int offset) {
+        List<CleanerDetailsDto> result = new ArrayList<>(Math.max(ranked.size() - offset, 0));
+        for (int i = offset; i < ranked.size(); i++) {
+            result.add(ranked.get(i).entry.dto);
+        }
+        return result;
+    }
+
+    private Ranked rank(Entry entry, CleanerSort sort) {
+        if (sort == null || sort == CleanerSort.PRICE_ASC) {
+            return new Ranked(entry, -(double) entry.rateCents, 0);
+        }
+        CleanerScores.Score score = scores.get(entry.dto.getId());
+        return new Ranked(entry, score.rankKey(sort), score.reviewCount());
+    }
+
+    public Optional<CleanerDetailsDto> find(UUID cleanerId) {
+        Entry entry = loaded().byId.get(cleanerId);
+        return entry != null ? Optional.of(entry.dto) : Optional.empty();
+    }
+
+    /**
+     * Inserts or replaces the entry for a cleaner after their details were saved.
+     */
+    public void upsert(CleanerDetailsEntity details) {
+        Entry entry = toEntry(details.getCleaner(), details);
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                return; // not loaded yet, the first search picks the row up from the database
+            }
+            snapshot = snapshot.without(entry.dto.getId()).with(entry);
+        }
+    }
+
+    /**
+     * Refreshes the name and email shown for a cleaner after their user profile changed.
+     */
+    public void updateProfile(UsersEntity user) {
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                return;
+            }
+            Entry existing = snapshot.byId.get(user.getUid());
+            if (existing == null) {
+                return;
+            }
+            CleanerDetailsDto old = existing.dto;
+            CleanerDetailsDto dto = new CleanerDetailsDto(
+                    user.getUid(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    user.getEmail(),
+                    old.getServicesOffered(),
+                    old.getHourlyRate(),
+                    old.getAvailability(),
+                    old.getBio()
+            );
+            snapshot = snapshot.without(user.getUid())
+                    .with(new Entry(dto, existing.rateCents, existing.dayMask, existing.slots));
+        }
+    }
+
+    private Snapshot loaded() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                List<Entry> entries = new ArrayList<>();
+                for (CleanerDetailsEntity details : cleanerRepository.findAllCleanersWithDetails()) {
+                    entries.add(toEntry(details.getCleaner(), details));
+                }
+                snapshot = Snapshot.of(entries);
+            }
+            return snapshot;
+        }
+    }
+
+    private static Entry toEntry(UsersEntity user, CleanerDetailsEntity details) {
+        CleanerDetailsDto dto = CleanerService.toDto(user, details);
+        if (dto.getAvailability() != null) {
+            dto.setAvailability(Collections.unmodifiableList(new ArrayList<>(dto.getAvailability())));
+        }
+        if (dto.getBio() != null) {
+            dto.setBio(Collections.unmodifiableList(new ArrayList<>(dto.getBio())));
+        }
+        long rate = details.getHourlyRate() != null ? toCents(details.getHourlyRate(), RoundingMode.HALF_UP) : NO_RATE;
+        List<AvailabilitySlot> slots = details.getAvailabilitySlots() != null
+                ? List.copyOf(details.getAvailabilitySlots())
+                : List.of();
+        return new Entry(dto, rate, dayMask(slots), slots);
+    }
+
+    private static int dayMask(List<AvailabilitySlot> slots) {
+        int mask = 0;
+        if (slots != null) {
+            for (AvailabilitySlot slot : slots) {
+                mask |= dayBit(slot.getDayOfWeek());
+            }
+        }
+        return mask;
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        try {
+            return DayOfWeek.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static List<IntervalIndex.Interval<Entry>> intervalsOn(Entry entry, DayOfWeek day) {
+        List<IntervalIndex.Interval<Entry>> intervals = new ArrayList<>(2);
+        for (AvailabilitySlot slot : entry.slots) {
+            if (slot.getDayOfWeek() == day) {
+                intervals.add(new IntervalIndex.Interval<>(minuteOfDay(slot.getStartTime()), minuteOfDay(slot.getEndTime()), entry));
+            }
+        }
+        return intervals;
+    }
+
+    private static int dayBit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValue();
+    }
+
+    /**
+     * First position in {@code rates} whose value is {@code >= key}.
+     */
+    private static int lowerBound(long[] rates, long key) {
+        int low = 0;
+        int high = rates.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rates[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Entry(CleanerDetailsDto dto, long rateCents, int dayMask, List<AvailabilitySlot> slots) {
+    }
+
+    /**
+     * A candidate with its sort keys, higher is better; equal keys fall back to the cheaper rate.
+     */
+    private record Ranked(Entry entry, double key, double tieBreak) {
+
+        static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::key).reversed()
+                .thenComparing(Comparator.comparingDouble(Ranked::tieBreak).reversed())
+                .thenComparingLong(ranked -> ranked.entry.rateCents)
+                .thenComparing(ranked -> ranked.entry.dto.getId());
+    }
+
+    /**
+     * Keeps the best {@code capacity} candidates offered to it in a min-heap whose head is the worst
+     * one kept, so ranking a page costs O(n log k) rather than sorting every match.
+     */
+    private static final class TopK {
+
+        private final int capacity;
+        private final PriorityQueue<Ranked> heap;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(Math.min(capacity, 1024), Ranked.BEST_FIRST.reversed());
+        }
+
+        void offer(Ranked candidate) {
+            if (heap.size() < capacity) {
+                heap.add(candidate);
+            } else if (Ranked.BEST_FIRST.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Ranked> sorted() {
+            List<Ranked> ranked = new ArrayList<>(heap);
+            ranked.sort(Ranked.BEST_FIRST);
+            return ranked;
+        }
+    }
+
+    private static final class Snapshot {
+
+        final Map<UUID, Entry> byId;
+        final long[] rates;
+        final Entry[] byRate;
+        final IntervalIndex<Entry>[] byDay;
+
+        Snapshot(Map<UUID, Entry> byId, long[] rates, Entry[] byRate, IntervalIndex<Entry>[] byDay) {
+            this.byId = byId;
+            this.rates = rates;
+            this.byRate = byRate;
+            this.byDay = byDay;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Snapshot of(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(Entry::rateCents));
+            long[] rates = new long[sorted.length];
+            Map<UUID, Entry> byId = new HashMap<>(sorted.length * 2);
+            for (int i = 0; i < sorted.length; i++) {
+                rates[i] = sorted[i].rateCents;
+                byId.put(sorted[i].dto.getId(), sorted[i]);
+            }
+
+            IntervalIndex<Entry>[] byDay = new IntervalIndex[7];
+            for (DayOfWeek day : DayOfWeek.values()) {
+                List<IntervalIndex.Interval<Entry>> intervals = new ArrayList<>();
+                for (Entry entry : sorted) {
+                    if ((entry.dayMask & dayBit(day)) != 0) {
+                        intervals.addAll(intervalsOn(entry, day));
+                    }
+                }
+                byDay[day.ordinal()] = IntervalIndex.build(intervals);
+            }
+            return new Snapshot(byId, rates, sorted, byDay);
+        }
+
+        Snapshot with(Entry entry) {
+            int size = rates.length;
+            // insert after equal rates so the order among them stays stable
+            int pos = lowerBound(rates, entry.rateCents);
+            while (pos < size && rates[pos] == entry.rateCents) {
+                pos++;
+            }
+            long[] newRates = new long[size + 1];
+            Entry[] newEntries = new Entry[size + 1];
+            System.arraycopy(rates, 0, newRates, 0, pos);
+            System.arraycopy(byRate, 0, newEntries, 0, pos);
+            newRates[pos] = entry.rateCents;
+            newEntries[pos] = entry;
+            System.arraycopy(rates, pos, newRates, pos + 1, size - pos);
+            System.arraycopy(byRate, pos, newEntries, pos + 1, size - pos);
+
+            Map<UUID, Entry> newById = new HashMap<>(byId);
+            newById.put(entry.dto.getId(), entry);
+
+            IntervalIndex<Entry>[] newByDay = byDay.clone();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if ((entry.dayMask & dayBit(day)) != 0) {
+                    newByDay[day.ordinal()] = byDay[day.ordinal()].with(intervalsOn(entry, day));
+                }
+            }
+            return new Snapshot(newById, newRates, newEntries, newByDay);
+        }
+
+        Snapshot without(UUID cleanerId) {
+            Entry existing = byId.get(cleanerId);
+            if (existing == null) {
+                return this;
+            }
+            int size = rates.length;
+            int pos = lowerBound(rates, existing.rateCents);
+            while (byRate[pos] != existing) {
+                pos++;
+            }
+            long[] newRates = new long[size - 1];
+            Entry[] newEntries = new Entry[size - 1];
+            System.arraycopy(rates, 0, newRates, 0, pos);
+            System.arraycopy(byRate, 0, newEntries, 0, pos);
+            System.arraycopy(rates, pos + 1, newRates, pos, size - pos - 1);
+            System.arraycopy(byRate, pos + 1, newEntries, pos, size - pos - 1);
+
+            Map<UUID, Entry> newById = new HashMap<>(byId);
+            newById.remove(cleanerId);
+
+            IntervalIndex<Entry>[] newByDay = byDay.clone();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if ((existing.dayMask & dayBit(day)) != 0) {
+                    newByDay[day.ordinal()] = byDay[day.ordinal()].without(existing);
+                }
+            }
+            return new Snapshot(newById, newRates, newEntries, newByDay);
+        }
+    }
+}
@@ -1,32 +1,55 @@
 package com.cleanme.service;
 
+import com.cleanme.configuration.CacheConfig;
 import com.cleanme.dto.*;
 import com.cleanme.dto.CleanerDetailsDto;
 import com.cleanme.dto.auth.CleanerSetupRequest;
+import com.cleanme.entity.AvailabilitySlot;
 import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.CleanerRatingStatsEntity;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.CleanerListSort;
+import com.cleanme.enums.CleanerSort;
 import com.cleanme.enums.UserType;
 import com.cleanme.exception.BusinessLogicException;
 import com.cleanme.exception.EntityNotFoundException;
+import com.cleanme.repository.CleanerRatingStatsRepository;
 import com.cleanme.repository.CleanerRepository;
-import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.CleanerSpecifications;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.AvailabilityMapper;
+import com.cleanme.utilities.TransactionCallbacks;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class CleanerService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // deeper pages would make the ranking heap as large as a full sort
+    static final int MAX_PAGE = 1_000;
+
     private final CleanerRepository cleanerRepository;
     private final UsersRepository usersRepository;
-    private final ReservationRepository reservationRepository;
+    private final ReservationViewRepository reservationViewRepository;
+    private final CleanerSearchIndex searchIndex;
+    private final CleanerTextIndex textIndex;
+    private final CleanerScores scores;
+    private final SlotEngine slotEngine;
+    private final CleanerRatingStatsRepository cleanerRatingStatsRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#request.cleanerId")
     public void setupCleaner(CleanerSetupRequest request) {
         UUID cleanerId = request.getCleanerId();
 
@@ -48,28 +71,50 @@ public class CleanerService {
         details.setAvailability(request.getAvailability());
         details.setBio(request.getBio());
 
+        // a new entity is persisted in place, so details carries the generated id after the save
         cleanerRepository.save(details);
+        TransactionCallbacks.afterCommit(() -> reindex(details));
     }
 
+    // Two projection queries (profile columns, then every availability slot) instead of loading entities per cleaner
     public List<CleanerDetailsDto> getAllCleaners() {
-        return usersRepository.findByUserType(UserType.CLEANER).stream()
-                .map(user -> {
-                    var details = cleanerRepository.findByCleaner_Uid(user.getUid()).orElse(null);
-                    return new CleanerDetailsDto(
-                            user.getUid(),
-                            user.getFirstName(),
-                            user.getLastName(),
-                            user.getEmail(),
-                            details != null ? details.getServicesOffered() : null,
-                            details != null ? details.getHourlyRate() : null,
-                            details != null ? details.getAvailability() : null,
-                            details != null ? details.getBio() : null
-                    );
-                })
-                .toList();
+        List<CleanerDetailsDto> profiles = usersRepository.findCleanerProfiles();
+
+        Map<UUID, List<AvailabilitySlot>> slotsByCleaner = new HashMap<>();
+        for (CleanerRepository.CleanerSlotRow row : cleanerRepository.findAllCleanerSlots()) {
+            slotsByCleaner.computeIfAbsent(row.getCleanerId(), id -> new ArrayList<>())
+                    .add(new AvailabilitySlot(row.getDayOfWeek(), row.getStartTime(), row.getEndTime()));
+        }
+        for (CleanerDetailsDto profile : profiles) {
+            List<AvailabilitySlot> slots = slotsByCleaner.get(profile.getId());
+            if (slots != null) {
+                slots.sort(AvailabilityMapper.SLOT_ORDER);
+                profile.setAvailability(AvailabilityMapper.toDto(slots));
+            }
+        }
+        return profiles.stream().map(this::withRating).toList();
+    }
+
+    // Keyset pagination: each page is one join query seeking past the cursor, however deep the client scrolls
+    public CursorPage<CleanerDetailsDto> getCleanersPage(CleanerListSort sort, Integer size, String cursor) {
+        if (sort == CleanerListSort.HOURLY_RATE) {
+            return KeysetPages.page(size, cursor, 3,
+                    usersRepository::findCleanersWithDetailsByRateFirstPage,
+                    (after, limit) -> usersRepository.findCleanersWithDetailsByRateAfter(
+                            KeysetPages.decimal(checkSort(after, sort)[1]), KeysetPages.uuid(after[2]), limit),
+                    last -> new Object[]{sort, last.getCleanerDetails().getHourlyRate().toPlainString(), last.getUid()},
+                    user -> withRating(toDto(user, user.getCleanerDetails())));
+        }
+        return KeysetPages.page(size, cursor, 2,
+                usersRepository::findCleanersWithDetailsFirstPage,
+                (after, limit) -> usersRepository.findCleanersWithDetailsAfter(
+                        KeysetPages.uuid(checkSort(after, CleanerListSort.UID)[1]), limit),
+                last -> new Object[]{CleanerListSort.UID, last.getUid()},
+                user -> withRating(toDto(user, user.getCleanerDetails())));
     }
 
     // Fixed: More lenient approach - works even without cleaner details
+    @Cacheable(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#id")
     public CleanerDetailsDto getCleanerById(UUID id) {
         UsersEntity user = usersRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cleaner", id));
@@ -81,18 +126,23 @@ public class CleanerService {
         // Get details if they exist, but don't throw error if they don't
         CleanerDetailsEntity details = cleanerRepository.findByCleaner_Uid(id).orElse(null);
 
-        return new CleanerDetailsDto(
-                user.getUid(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getEmail(),
-                details != null ? details.getServicesOffered() : null,
-                details != null ? details.getHourlyRate() : null,
-                details != null ? details.getAvailability() : null,
-                details != null ? details.getBio() : null
-        );
+        // one primary-key read of the rating aggregate; reviews evict this cached profile
+        CleanerDetailsDto profile = toDto(user, details);
+        CleanerRatingStatsEntity ratings = cleanerRatingStatsRepository.findById(id).orElseGet(CleanerRatingStatsEntity::new);
+        profile.setAverageRating(averageRating(ratings.getReviewCount(), ratings.getRatingSum()));
+        profile.setReviewCount(ratings.getReviewCount());
+        Map<Integer, Long> histogram = new TreeMap<>();
+        histogram.put(1, ratings.getStars1());
+        histogram.put(2, ratings.getStars2());
+        histogram.put(3, ratings.getStars3());
+        histogram.put(4, ratings.getStars4());
+        histogram.put(5, ratings.getStars5());
+        profile.setRatingHistogram(histogram);
+        return profile;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#id")
     public void updateCleanerDetails(UUID id, CleanerUpdateRequest request) {
         UsersEntity cleaner = usersRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User", id));
@@ -122,69 +172,121 @@ public class CleanerService {
         }
 
         cleanerRepository.save(details);
+        TransactionCallbacks.afterCommit(() -> reindex(details));
     }
 
-    // Simple approach - filter cleaners normally  
+    // Served from the in-memory index: a rate range scan plus a weekday mask check, no database round trips.
+    // While the index is still warming up the same predicates run in SQL instead.
     public List<CleanerDetailsDto> filterCleaners(FilterDto filter) {
-        return usersRepository.findByUserType(UserType.CLEANER).stream()
-                .filter(user -> {
-                    var details = cleanerRepository.findByCleaner_Uid(user.getUid()).orElse(null);
-                    if (details == null) return false;
-                    boolean priceMatch = filter.getMinRate() == null || filter.getMaxRate() == null ||
-                            (details.getHourlyRate().compareTo(filter.getMinRate()) >= 0 &&
-                                    details.getHourlyRate().compareTo(filter.getMaxRate()) <= 0);
-                    boolean availabilityMatch = filter.getAvailability() == null ||
-                            details.getAvailability().stream().anyMatch(map ->
-                                    map.keySet().stream().anyMatch(day ->
-                                            day.equalsIgnoreCase(filter.getAvailability())
-                                    )
-                            );
-                    return priceMatch && availabilityMatch;
-                })
-                .map(user -> {
-                    var details = cleanerRepository.findByCleaner_Uid(user.getUid()).orElse(null);
-                    return new CleanerDetailsDto(
-                            user.getUid(),
-                            user.getFirstName(),
-                            user.getLastName(),
-                            user.getEmail(),
-                            details.getServicesOffered(),
-                            details.getHourlyRate(),
-                            details.getAvailability(),
-                            details.getBio()
-                    );
-                })
+        if (searchIndex.isReady()) {
+            return searchIndex.search(filter).stream().map(this::withRating).toList();
+        }
+        return searchCleanersInDatabase(filter);
+    }
+
+    // Ranked full-text search over servicesOffered and bio, answered from the in-memory indexes
+    public List<CleanerDetailsDto> searchCleanersByText(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessLogicException("Search query must not be empty");
+        }
+        return textIndex.search(query, clampPageSize(limit)).stream()
+                .map(searchIndex::find)
+                .flatMap(Optional::stream)
+                .map(this::withRating)
                 .toList();
     }
 
-    // Simple approach - get cleaner reservations normally
-    public List<ReservationDto> getCleanerReservations(UUID id) {
-        return reservationRepository.findByCleaner_Uid(id).stream()
-                .map(reservation -> {
-                    String cleanerName = reservation.getCleaner() != null
-                            ? reservation.getCleaner().getFirstName() + " " + reservation.getCleaner().getLastName()
-                            : null;
-                    
-                    String clientName = reservation.getUser() != null
-                            ? reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName()
-                            : null;
-                    
-                    String clientPhone = reservation.getUser() != null
-                            ? reservation.getUser().getPhone()
-                            : null;
-                    
-                    return new ReservationDto(
-                            reservation.getRid(),
-                            reservation.getDate(),
-                            reservation.getTime(),
-                            reservation.getLocation(),
-                            reservation.getStatus(),
-                            reservation.getComment(),
-                            cleanerName,
-                            clientName,
-                            clientPhone
-                    );
-                })
+    public List<CleanerDetailsDto> searchCleanersInDatabase(FilterDto filter) {
+        AvailabilityMapper.TimeWindow window = AvailabilityMapper.parseWindow(filter.getFrom(), filter.getTo());
+        Specification<CleanerDetailsEntity> spec = Specification.where(CleanerSpecifications.isCleaner())
+                .and(CleanerSpecifications.hourlyRateAtLeast(filter.getMinRate()))
+                .and(CleanerSpecifications.hourlyRateAtMost(filter.getMaxRate()))
+                .and(CleanerSpecifications.availableDuring(filter.getAvailability(),
+                        window != null ? window.from() : null,
+                        window != null ? window.to() : null));
+
+        List<CleanerDetailsDto> matches = cleanerRepository.findAll(spec, Sort.by("hourlyRate", "cleaner.uid")).stream()
+                .map(details -> withRating(toDto(details.getCleaner(), details)))
                 .toList();
+
+        CleanerSort sort = filter.getSort();
+        if (sort == null && filter.getSize() == null) {
+            return matches;
+        }
+        if (sort != null && sort != CleanerSort.PRICE_ASC) {
+            matches = matches.stream()
+                    .sorted(Comparator.comparingDouble((CleanerDetailsDto dto) -> scores.get(dto.getId()).rankKey(sort)).reversed())
+                    .toList();
+        }
+        int pageSize = clampPageSize(filter.getSize());
+        int offset = Math.min(clampPage(filter.getPage()) * pageSize, matches.size());
+        return matches.subList(offset, Math.min(offset + pageSize, matches.size()));
+    }
+
+    public List<ReservationDto> getCleanerReservations(UUID id) {
+        return reservationViewRepository.findDtosByCleanerId(id);
+    }
+
+    // One page of the cleaner's bookings, filtered by status and date range, newest first
+    public CursorPage<ReservationDto> getCleanerReservationsPage(UUID id, ReservationHistoryFilter filter) {
+        return ReservationHistoryPages.page(filter,
+                (statuses, anyStatus, from, to, limit) -> reservationViewRepository.findCleanerHistoryFirstPage(
+                        id, statuses, anyStatus, from, to, limit),
+                (statuses, anyStatus, from, to, afterDate, afterTime, afterRid, limit) -> reservationViewRepository.findCleanerHistoryAfter(
+                        id, statuses, anyStatus, from, to, afterDate, afterTime, afterRid, limit));
+    }
+
+    private void reindex(CleanerDetailsEntity details) {
+        searchIndex.upsert(details);
+        textIndex.upsert(details);
+        slotEngine.invalidate(details.getCleaner().getUid());
+    }
+
+    // Listed cleaners get their rating from the in-memory totals that also drive ranking. Index entries
+    // are shared between requests, so this returns a copy.
+    private CleanerDetailsDto withRating(CleanerDetailsDto dto) {
+        CleanerScores.Score score = scores.get(dto.getId());
+        return new CleanerDetailsDto(dto.getId(), dto.getFirstName(), dto.getLastName(), dto.getEmail(),
+                dto.getServicesOffered(), dto.getHourlyRate(), dto.getAvailability(), dto.getBio(),
+                averageRating(score.reviewCount(), score.ratingSum()), score.reviewCount(), null);
+    }
+
+    private static Double averageRating(long reviewCount, long ratingSum) {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+    }
+
+    static int clampPageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    static int clampPage(Integer page) {
+        if (page == null) {
+            return 0;
+        }
+        return Math.max(0, Math.min(page, MAX_PAGE));
+    }
+
+    // cursors lead with the sort they were issued for
+    private static String[] checkSort(String[] cursor, CleanerListSort sort) {
+        if (!sort.name().equals(cursor[0])) {
+            throw new BusinessLogicException("Cursor was issued for a different sort order");
+        }
+        return cursor;
+    }
+
+    static CleanerDetailsDto toDto(UsersEntity user, CleanerDetailsEntity details) {
+        return new CleanerDetailsDto(
+                user.getUid(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                details != null ? details.getServicesOffered() : null,
+                details != null ? details.getHourlyRate() : null,
+                details != null ? details.getAvailability() : null,
+                details != null ? details.getBio() : null
+        );
     }
 }
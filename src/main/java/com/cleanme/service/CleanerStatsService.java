@@ -0,0 +1,112 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CleanerMonthlyStatsDto;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerMonthlyStatsRepository;
+import com.cleanme.repository.CleanerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Monthly reservation counts and estimated earnings per cleaner, read from cleaner_monthly_stats.
+ * Reservation writes report their effect through {@link #record} in their own transaction, so the
+ * counters commit or roll back together with the reservation.
+ */
+@Service
+public class CleanerStatsService {
+
+    static final int MAX_MONTHS = 36;
+    static final int DEFAULT_MONTHS = 12;
+
+    private static final Comparator<Change> KEY_ORDER = Comparator.comparing(Change::cleanerId)
+            .thenComparing(Change::date)
+            .thenComparing(Change::status);
+
+    private final CleanerMonthlyStatsRepository statsRepository;
+    private final CleanerRepository cleanerRepository;
+    private final int bookingMinutes;
+
+    public CleanerStatsService(CleanerMonthlyStatsRepository statsRepository, CleanerRepository cleanerRepository,
+                               @Value("${cleanme.slots.booking-minutes:60}") int bookingMinutes) {
+        this.statsRepository = statsRepository;
+        this.cleanerRepository = cleanerRepository;
+        this.bookingMinutes = bookingMinutes;
+    }
+
+    /**
+     * Every month in [from, to], oldest first; both default to the last {@value DEFAULT_MONTHS} months.
+     */
+    public List<CleanerMonthlyStatsDto> getMonthlyStats(UUID cleanerId, YearMonth from, YearMonth to) {
+        YearMonth last = to != null ? to : YearMonth.now();
+        YearMonth first = from != null ? from : last.minusMonths(DEFAULT_MONTHS - 1);
+        if (last.isBefore(first)) {
+            throw new BusinessLogicException("'to' must not be before 'from'");
+        }
+        if (first.plusMonths(MAX_MONTHS).isBefore(last.plusMonths(1))) {
+            throw new BusinessLogicException("Stats cover at most " + MAX_MONTHS + " months");
+        }
+
+        Map<YearMonth, Map<ReservationStatus, Long>> counts = new LinkedHashMap<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            counts.put(month, new EnumMap<>(ReservationStatus.class));
+        }
+        for (CleanerMonthlyStatsRepository.MonthlyCountRow row
+                : statsRepository.findMonthlyCounts(cleanerId, first.atDay(1), last.atDay(1))) {
+            counts.get(YearMonth.from(row.getMonth())).put(row.getStatus(), row.getReservationCount());
+        }
+
+        BigDecimal hourlyRate = cleanerRepository.findHourlyRateByCleanerUid(cleanerId).orElse(null);
+        List<CleanerMonthlyStatsDto> stats = new ArrayList<>(counts.size());
+        counts.forEach((month, byStatus) -> stats.add(new CleanerMonthlyStatsDto(month, byStatus,
+                earnings(hourlyRate, byStatus.getOrDefault(ReservationStatus.FINISHED, 0L)))));
+        return stats;
+    }
+
+    /**
+     * Applies reservation count changes. Changes to the same counter are merged and the rest applied in
+     * key order, so concurrent writers lock counter rows in the same order and cannot deadlock.
+     */
+    public void record(Collection<Change> changes) {
+        Map<Change, Integer> merged = new TreeMap<>(KEY_ORDER);
+        for (Change change : changes) {
+            if (change.cleanerId() != null && change.date() != null && change.status() != null) {
+                Change key = new Change(change.cleanerId(), change.date().withDayOfMonth(1), change.status(), 0);
+                merged.merge(key, change.delta(), Integer::sum);
+            }
+        }
+        merged.forEach((key, delta) -> {
+            if (delta != 0) {
+                statsRepository.adjust(key.cleanerId(), key.date(), key.status().name(), delta);
+            }
+        });
+    }
+
+    private BigDecimal earnings(BigDecimal hourlyRate, long finished) {
+        if (hourlyRate == null) {
+            return null;
+        }
+        return hourlyRate.multiply(BigDecimal.valueOf(finished * bookingMinutes))
+                .divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * A change of {@code delta} reservations in the counter of the cleaner, the month of {@code date} and the status.
+     */
+    public record Change(UUID cleanerId, LocalDate date, ReservationStatus status, int delta) {
+
+        public static Change added(UUID cleanerId, LocalDate date, ReservationStatus status) {
+            return new Change(cleanerId, date, status, 1);
+        }
+
+        public static Change removed(UUID cleanerId, LocalDate date, ReservationStatus status) {
+            return new Change(cleanerId, date, status, -1);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.repository.CleanerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the free text cleaners write about themselves ({@code servicesOffered} and {@code bio}).
+ * <p>
+ * Terms are lower-cased and stripped of diacritics, so "ciscenje" finds "Čišćenje". Posting lists live in a
+ * sorted map, which turns prefix matching into a range lookup. Every query term must match a document,
+ * either exactly or as a prefix; results are ranked by TF-IDF with prefix hits weighted lower and
+ * {@code servicesOffered} weighted above the bio.
+ */
+@Component
+@RequiredArgsConstructor
+public class CleanerTextIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final float SERVICES_WEIGHT = 2f;
+    private static final float BIO_WEIGHT = 1f;
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    private final CleanerRepository cleanerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<UUID, Float>> postings = new TreeMap<>();
+    private final Map<UUID, Set<String>> termsByCleaner = new HashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+    }
+
+    /**
+     * Returns up to {@code limit} cleaner ids matching every term of {@code query}, best match first.
+     */
+    public List<UUID> search(String query, int limit) {
+        ensureLoaded();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documents = Math.max(termsByCleaner.size(), 1);
+            Map<UUID, Double> scores = null;
+            for (String term : terms) {
+                Map<UUID, Double> termScores = scoreTerm(term, documents);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<UUID, Double> score : scores.entrySet()) {
+                        score.setValue(score.getValue() + termScores.get(score.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes one cleaner after their details were saved: old postings are dropped, new ones added.
+     */
+    public void upsert(CleanerDetailsEntity details) {
+        if (!loaded) {
+            return; // the initial load will pick the saved row up
+        }
+        UUID cleanerId = details.getCleaner().getUid();
+        Map<String, Float> frequencies = termFrequencies(details);
+        lock.writeLock().lock();
+        try {
+            index(cleanerId, frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<UUID, Double> scoreTerm(String term, int documents) {
+        Map<UUID, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Map<UUID, Float>> posting : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            Map<UUID, Float> documentsWithTerm = posting.getValue();
+            double idf = Math.log(1.0 + (double) documents / documentsWithTerm.size());
+            double weight = posting.getKey().equals(term) ? 1.0 : PREFIX_WEIGHT;
+            for (Map.Entry<UUID, Float> hit : documentsWithTerm.entrySet()) {
+                scores.merge(hit.getKey(), weight * idf * hit.getValue(), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static List<UUID> topIds(Map<UUID, Double> scores, int limit) {
+        List<Map.Entry<UUID, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<UUID, Double>comparingByValue().reversed());
+        List<UUID> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                for (CleanerDetailsEntity details : cleanerRepository.findAllCleanersWithDetails()) {
+                    index(details.getCleaner().getUid(), termFrequencies(details));
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // caller holds the write lock
+    private void index(UUID cleanerId, Map<String, Float> frequencies) {
+        Set<String> previous = termsByCleaner.remove(cleanerId);
+        if (previous != null) {
+            for (String term : previous) {
+                Map<UUID, Float> posting = postings.get(term);
+                posting.remove(cleanerId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (Map.Entry<String, Float> frequency : frequencies.entrySet()) {
+            postings.computeIfAbsent(frequency.getKey(), term -> new HashMap<>()).put(cleanerId, frequency.getValue());
+        }
+        termsByCleaner.put(cleanerId, new HashSet<>(frequencies.keySet()));
+    }
+
+    private static Map<String, Float> termFrequencies(CleanerDetailsEntity details) {
+        Map<String, Float> frequencies = new HashMap<>();
+        for (String term : tokenize(details.getServicesOffered())) {
+            frequencies.merge(term, SERVICES_WEIGHT, Float::sum);
+        }
+        if (details.getBio() != null) {
+            for (String line : details.getBio()) {
+                for (String term : tokenize(line)) {
+                    frequencies.merge(term, BIO_WEIGHT, Float::sum);
+                }
+            }
+        }
+        return frequencies;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('\u0111', 'd')
+                .replace('\u0110', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -7,6 +7,7 @@ import com.cleanme.entity.UsersEntity;
 import com.cleanme.enums.UserType;
 import com.cleanme.repository.FavouriteRepository;
 import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
@@ -20,6 +21,7 @@ public class FavouriteService {
 
     private final FavouriteRepository favouriteRepository;
     private final UsersRepository usersRepository;
+    private final CleanerScores cleanerScores;
 
     public void addFavourite(AddFavouriteRequest request) {
         UUID clientId = request.getClientId();
@@ -44,16 +46,11 @@ public class FavouriteService {
         favourite.setCleaner(cleaner);
 
         favouriteRepository.save(favourite);
+        TransactionCallbacks.afterCommit(() -> cleanerScores.recordFavourite(cleanerId, 1));
     }
 
     public List<FavouriteDto> getFavourites(UUID clientId) {
-        return favouriteRepository.findByClient_Uid(clientId)
-                .stream()
-                .map(fav -> new FavouriteDto(
-                        fav.getCleaner().getUid(),
-                        fav.getCleaner().getFirstName() + " " + fav.getCleaner().getLastName()
-                ))
-                .toList();
+        return favouriteRepository.findDtosByClientUid(clientId);
     }
 
     @Transactional
@@ -68,6 +65,7 @@ public class FavouriteService {
         }
         
         favouriteRepository.deleteByClient_UidAndCleaner_Uid(clientId, cleanerId);
+        TransactionCallbacks.afterCommit(() -> cleanerScores.recordFavourite(cleanerId, -1));
         System.out.println("Favorite removed successfully");
     }
 }
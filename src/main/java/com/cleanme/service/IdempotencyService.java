@@ -0,0 +1,171 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.IdempotencyKeyEntity;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.repository.IdempotencyKeyRepository;
+import com.cleanme.utilities.TransactionCallbacks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Makes create requests safe to retry with an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key claims (user, scope, key) with an empty row, runs the write and fills in
+ * its response, all in one transaction, so either everything commits or nothing does. Retries within
+ * the TTL get the stored response back without touching the domain tables; recent keys are also held
+ * in a bounded in-memory cache so most replays skip the database entirely. A concurrent request with
+ * the same key blocks on the claim until the first one ends and then replays its response without
+ * running the write; if the first one rolled back, the waiting request takes the key over.
+ */
+@Service
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<CacheKey, StoredResponse> recent;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${cleanme.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${cleanme.idempotency.max-cached-keys:10000}") long maxCachedKeys) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code action} once per key and returns its response, or the stored response of an earlier
+     * request with the same key. Without a key the action simply runs.
+     */
+    public <T> T execute(UUID userId, String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessLogicException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        CacheKey cacheKey = new CacheKey(userId, scope, key);
+        String requestHash = hash(write(request));
+
+        StoredResponse stored = lookup(cacheKey);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime expiresAt = now.plus(ttl);
+                if (idempotencyKeyRepository.claim(userId, scope, key, requestHash, now, expiresAt) == 0) {
+                    throw new KeyTakenException();
+                }
+                T response = action.get();
+                StoredResponse entry = new StoredResponse(requestHash, write(response), expiresAt);
+                idempotencyKeyRepository.complete(userId, scope, key, entry.body());
+                TransactionCallbacks.afterCommit(() -> recent.put(cacheKey, entry));
+                return response;
+            });
+        } catch (KeyTakenException e) {
+            // a concurrent request with this key committed first; the write did not run here
+            StoredResponse winner = lookup(cacheKey);
+            if (winner == null) {
+                throw new ConflictException("Request with Idempotency-Key " + key + " is still in progress");
+            }
+            return replay(winner, requestHash, responseType);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cleanme.idempotency.purge-interval-ms:3600000}",
+            initialDelayString = "${cleanme.idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(LocalDateTime.now()));
+        return purged != null ? purged : 0;
+    }
+
+    private StoredResponse lookup(CacheKey cacheKey) {
+        StoredResponse cached = recent.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        StoredResponse stored = idempotencyKeyRepository
+                .findById(new IdempotencyKeyEntity.Key(cacheKey.userId(), cacheKey.scope(), cacheKey.key()))
+                .map(entity -> new StoredResponse(entity.getRequestHash(), entity.getResponseBody(), entity.getExpiresAt()))
+                .orElse(null);
+        // an expired row that the purge has not reached yet no longer counts, and an empty one is still running
+        if (stored == null || stored.body() == null || !stored.expiresAt().isAfter(LocalDateTime.now())) {
+            return null;
+        }
+        recent.put(cacheKey, stored);
+        return stored;
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+        return read(stored.body(), responseType);
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored " + type.getSimpleName(), e);
+        }
+    }
+
+    private static String hash(String body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CacheKey(UUID userId, String scope, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime expiresAt) {
+    }
+
+    private static final class KeyTakenException extends RuntimeException {
+        KeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.cleanme.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable index of integer intervals {@code [start, end]} answering containment queries: which
+ * intervals fully contain a query window {@code [from, to]}.
+ * <p>
+ * Intervals are sorted by start, so every candidate lies in the prefix whose start is {@code <= from}.
+ * A max-segment tree over the ends of that order prunes every subtree whose largest end is before
+ * {@code to}, which makes a query O(log n + k log n) for k matches instead of a scan.
+ */
+final class IntervalIndex<T> {
+
+    private static final IntervalIndex<?> EMPTY = new IntervalIndex<>(new int[0], new int[0], new Object[0]);
+
+    private final int[] starts;
+    private final int[] ends;
+    private final Object[] owners;
+    private final int leaves;
+    private final int[] maxEnd;
+
+    private IntervalIndex(int[] starts, int[] ends, Object[] owners) {
+        this.starts = starts;
+        this.ends = ends;
+        this.owners = owners;
+
+        int leafCount = 1;
+        while (leafCount < starts.length) {
+            leafCount <<= 1;
+        }
+        this.leaves = leafCount;
+        this.maxEnd = new int[2 * leafCount];
+        Arrays.fill(maxEnd, Integer.MIN_VALUE);
+        for (int i = 0; i < ends.length; i++) {
+            maxEnd[leafCount + i] = ends[i];
+        }
+        for (int node = leafCount - 1; node > 0; node--) {
+            maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> IntervalIndex<T> empty() {
+        return (IntervalIndex<T>) EMPTY;
+    }
+
+    static <T> IntervalIndex<T> build(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return empty();
+        }
+        List<Interval<T>> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingInt(Interval::start));
+        int[] starts = new int[sorted.size()];
+        int[] ends = new int[sorted.size()];
+        Object[] owners = new Object[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            starts[i] = sorted.get(i).start();
+            ends[i] = sorted.get(i).end();
+            owners[i] = sorted.get(i).owner();
+        }
+        return new IntervalIndex<>(starts, ends, owners);
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    /**
+     * Copy with the given intervals added; existing intervals keep their relative order.
+     */
+    IntervalIndex<T> with(List<Interval<T>> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        List<Interval<T>> all = intervals();
+        all.addAll(added);
+        return build(all);
+    }
+
+    /**
+     * Copy without the intervals of {@code owner} (compared by identity).
+     */
+    IntervalIndex<T> without(T owner) {
+        List<Interval<T>> kept = new ArrayList<>(starts.length);
+        for (Interval<T> interval : intervals()) {
+            if (interval.owner() != owner) {
+                kept.add(interval);
+            }
+        }
+        return kept.size() == starts.length ? this : build(kept);
+    }
+
+    /**
+     * Calls {@code action} for every interval with {@code start <= from} and {@code end >= to}. An owner
+     * with several matching intervals is reported once per interval.
+     */
+    void forEachContaining(int from, int to, Consumer<T> action) {
+        int prefix = upperBound(starts, from);
+        if (prefix > 0) {
+            collect(1, 0, leaves, prefix, to, action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int node, int low, int high, int prefix, int to, Consumer<T> action) {
+        if (low >= prefix || maxEnd[node] < to) {
+            return;
+        }
+        if (high - low == 1) {
+            action.accept((T) owners[low]);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        collect(2 * node, low, mid, prefix, to, action);
+        collect(2 * node + 1, mid, high, prefix, to, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Interval<T>> intervals() {
+        List<Interval<T>> all = new ArrayList<>(starts.length + 4);
+        for (int i = 0; i < starts.length; i++) {
+            all.add(new Interval<>(starts[i], ends[i], (T) owners[i]));
+        }
+        return all;
+    }
+
+    /**
+     * Number of values in {@code sorted} that are {@code <= key}.
+     */
+    private static int upperBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    record Interval<T>(int start, int end, T owner) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CursorPage;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.utilities.CursorCodec;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination shared by the cursor-paged listings. Each page is one query for up to
+ * {@code size + 1} rows seeking past the sort key of the previous page's last row, which travels as an
+ * opaque {@link CursorCodec} token; the extra row only tells whether another page follows.
+ */
+final class KeysetPages {
+
+    interface FirstPage<R> {
+        List<R> fetch(Pageable limit);
+    }
+
+    // cursor holds the decoded sort key parts of the previous page's last row; parse them with the helpers below
+    interface NextPage<R> {
+        List<R> fetch(String[] cursor, Pageable limit);
+    }
+
+    private KeysetPages() {
+    }
+
+    /**
+     * @param cursorParts number of parts {@code sortKey} produces, checked when a cursor is decoded
+     * @param sortKey     the parts of a row's sort key, in the order {@code next} reads them back
+     */
+    static <R, T> CursorPage<T> page(Integer size, String cursor, int cursorParts,
+                                     FirstPage<R> first, NextPage<R> next,
+                                     Function<R, Object[]> sortKey, Function<R, T> toItem) {
+        int pageSize = CleanerService.clampPageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<R> rows = cursor == null
+                ? first.fetch(limit)
+                : next.fetch(CursorCodec.decode(cursor, cursorParts), limit);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<R> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext ? CursorCodec.encode(sortKey.apply(page.get(page.size() - 1))) : null;
+        return new CursorPage<>(page.stream().map(toItem).toList(), nextCursor);
+    }
+
+    static UUID uuid(String part) {
+        try {
+            return UUID.fromString(part);
+        } catch (IllegalArgumentException e) {
+            throw invalid(e);
+        }
+    }
+
+    static LocalDate date(String part) {
+        try {
+            return LocalDate.parse(part);
+        } catch (DateTimeParseException e) {
+            throw invalid(e);
+        }
+    }
+
+    static LocalTime time(String part) {
+        try {
+            return LocalTime.parse(part);
+        } catch (DateTimeParseException e) {
+            throw invalid(e);
+        }
+    }
+
+    static BigDecimal decimal(String part) {
+        try {
+            return new BigDecimal(part);
+        } catch (NumberFormatException e) {
+            throw invalid(e);
+        }
+    }
+
+    private static BusinessLogicException invalid(RuntimeException cause) {
+        return new BusinessLogicException("Invalid cursor", cause);
+    }
+}
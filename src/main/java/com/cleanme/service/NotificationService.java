@@ -3,6 +3,7 @@ package com.cleanme.service;
 import com.cleanme.dto.NotificationDto;
 import com.cleanme.dto.NotificationRequest;
 import com.cleanme.entity.NotificationEntity;
+import com.cleanme.entity.OutboxEventEntity;
 import com.cleanme.entity.UsersEntity;
 import com.cleanme.repository.NotificationRepository;
 import com.cleanme.repository.UsersRepository;
@@ -14,7 +15,7 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
-public class NotificationService {
+public class NotificationService implements ReservationEventConsumer {
 
     private final NotificationRepository notificationRepository;
     private final UsersRepository usersRepository;
@@ -30,6 +31,33 @@ public class NotificationService {
         notificationRepository.save(notification);
     }
 
+    // Tells the other party about a reservation change: new and removed bookings go to the cleaner,
+    // updates go to both sides
+    @Override
+    public void onReservationEvent(OutboxEventEntity event) {
+        String when = event.getDate() + " at " + event.getTime();
+        switch (event.getType()) {
+            case CREATED -> notify(event.getCleanerId(), "New reservation request for " + when);
+            case UPDATED -> {
+                String message = "Reservation on " + when + " is now " + event.getStatus();
+                notify(event.getClientId(), message);
+                notify(event.getCleanerId(), message);
+            }
+            case DELETED -> notify(event.getCleanerId(), "Reservation on " + when + " was withdrawn by the client");
+        }
+    }
+
+    private void notify(UUID userId, String message) {
+        if (userId == null) {
+            return;
+        }
+        NotificationEntity notification = new NotificationEntity();
+        notification.setMessage(message);
+        // a reference is enough for the foreign key; the user row is not loaded
+        notification.setUser(usersRepository.getReferenceById(userId));
+        notificationRepository.save(notification);
+    }
+
     public List<NotificationDto> getNotificationsForUser(UUID userId) {
         return notificationRepository.findByUser_Uid(userId).stream()
                 .map(n -> new NotificationDto(
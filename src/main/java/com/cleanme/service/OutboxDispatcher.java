@@ -0,0 +1,102 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.OutboxEventEntity;
+import com.cleanme.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the reservation outbox into the {@link ReservationEventConsumer}s.
+ * <p>
+ * Each poll claims a batch with {@code FOR UPDATE SKIP LOCKED} and leases it by pushing
+ * {@code available_at} past the lease, so other instances skip it while it is being delivered. Every
+ * event is then delivered and deleted in its own transaction; a failing event is put back with an
+ * exponential backoff without holding up the rest of the batch. Consumers write through transactional
+ * repositories, so a failure inside a shared batch transaction would mark it rollback-only and undo
+ * the deliveries of every other event in it. A dispatcher that dies mid-batch leaves its events to be
+ * claimed again once the lease expires.
+ */
+@Component
+public class OutboxDispatcher {
+
+    static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<ReservationEventConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retryDelay;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<ReservationEventConsumer> consumers,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${cleanme.outbox.batch-size:100}") int batchSize,
+                            @Value("${cleanme.outbox.lease-seconds:60}") long leaseSeconds,
+                            @Value("${cleanme.outbox.retry-delay-seconds:5}") long retryDelaySeconds) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryDelay = Duration.ofSeconds(retryDelaySeconds);
+    }
+
+    /**
+     * Delivers one batch and returns the number of events handled successfully.
+     */
+    @Scheduled(fixedDelayString = "${cleanme.outbox.poll-interval-ms:1000}")
+    public int dispatch() {
+        List<OutboxEventEntity> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null) {
+            return 0;
+        }
+        int delivered = 0;
+        for (OutboxEventEntity event : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> deliver(event));
+                delivered++;
+            } catch (RuntimeException e) {
+                transactionTemplate.executeWithoutResult(status -> retryLater(event, e));
+            }
+        }
+        return delivered;
+    }
+
+    private List<OutboxEventEntity> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEventEntity> batch = outboxEventRepository.claimAvailable(now, batchSize);
+        for (OutboxEventEntity event : batch) {
+            event.setAvailableAt(now.plus(lease));
+        }
+        return outboxEventRepository.saveAll(batch);
+    }
+
+    private void deliver(OutboxEventEntity event) {
+        for (ReservationEventConsumer consumer : consumers) {
+            consumer.onReservationEvent(event);
+        }
+        outboxEventRepository.deleteById(event.getId());
+    }
+
+    private void retryLater(OutboxEventEntity event, RuntimeException failure) {
+        outboxEventRepository.findById(event.getId()).ifPresent(stored -> {
+            int attempts = stored.getAttempts() + 1;
+            stored.setAttempts(attempts);
+            stored.setAvailableAt(LocalDateTime.now().plus(retryDelay.multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_SHIFT))));
+            stored.setLastError(abbreviate(String.valueOf(failure.getMessage())));
+            outboxEventRepository.save(stored);
+        });
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 255 ? message : message.substring(0, 255);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.OutboxEventEntity;
+
+/**
+ * Side effect of a reservation change, run by {@link OutboxDispatcher} after the change committed.
+ * <p>
+ * Delivery is at least once: an event whose transaction fails, or whose dispatcher dies mid-batch,
+ * is handed to every consumer again. Consumers run inside the transaction that deletes the event, so
+ * database-only consumers see each event exactly once; anything with external effects must tolerate
+ * repeats.
+ */
+public interface ReservationEventConsumer {
+
+    void onReservationEvent(OutboxEventEntity event);
+}
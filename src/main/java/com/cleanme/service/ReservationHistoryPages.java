@@ -0,0 +1,56 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CursorPage;
+import com.cleanme.dto.ReservationDto;
+import com.cleanme.dto.ReservationHistoryFilter;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination over a client's or cleaner's reservation history, newest first by
+ * (date, time, rid). Each page is one query on reservation_view seeking past the last row of the
+ * previous page, so its cost does not depend on how far back the history goes. Legacy reservations
+ * without a date or time are not part of any page.
+ */
+final class ReservationHistoryPages {
+
+    // open ends of the date filter, inside the range PostgreSQL dates can hold
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    interface FirstPage {
+        List<ReservationDto> fetch(Collection<ReservationStatus> statuses, boolean anyStatus, LocalDate from, LocalDate to,
+                                   Pageable limit);
+    }
+
+    interface NextPage {
+        List<ReservationDto> fetch(Collection<ReservationStatus> statuses, boolean anyStatus, LocalDate from, LocalDate to,
+                                   LocalDate afterDate, LocalTime afterTime, UUID afterRid, Pageable limit);
+    }
+
+    private ReservationHistoryPages() {
+    }
+
+    static CursorPage<ReservationDto> page(ReservationHistoryFilter filter, FirstPage first, NextPage next) {
+        boolean anyStatus = filter.getStatus() == null || filter.getStatus().isEmpty();
+        Collection<ReservationStatus> statuses = anyStatus ? EnumSet.allOf(ReservationStatus.class) : filter.getStatus();
+        LocalDate from = filter.getFrom() != null ? filter.getFrom() : EARLIEST;
+        LocalDate to = filter.getTo() != null ? filter.getTo() : LATEST;
+        if (to.isBefore(from)) {
+            throw new BusinessLogicException("'to' must not be before 'from'");
+        }
+
+        return KeysetPages.page(filter.getSize(), filter.getCursor(), 3,
+                limit -> first.fetch(statuses, anyStatus, from, to, limit),
+                (cursor, limit) -> next.fetch(statuses, anyStatus, from, to,
+                        KeysetPages.date(cursor[0]), KeysetPages.time(cursor[1]), KeysetPages.uuid(cursor[2]), limit),
+                last -> new Object[]{last.getDate(), last.getTime(), last.getRid()},
+                Function.identity());
+    }
+}
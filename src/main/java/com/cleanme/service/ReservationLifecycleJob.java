@@ -0,0 +1,88 @@
+package com.cleanme.service;
+
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Moves reservations forward once their time has passed: confirmed or ongoing ones become FINISHED
+ * after their booking length, pending ones that were never confirmed become CANCELLED at their start.
+ * <p>
+ * Each transition runs as a series of set-based updates of at most {@code chunkSize} rows, each in its
+ * own short transaction, until a chunk comes back short or {@code maxChunks} is reached; the rest waits
+ * for the next run. Chunks claim rows with {@code SKIP LOCKED}, so several nodes can run the job at once
+ * without touching the same reservation. Every moved reservation gets an UPDATED outbox event, so
+ * clients hear about it like any other status change. Rows moved and run time are published as
+ * {@code cleanme.reservations.lifecycle.rows} and {@code cleanme.reservations.lifecycle.duration}.
+ */
+@Component
+public class ReservationLifecycleJob {
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int bookingMinutes;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Counter finished;
+    private final Counter expired;
+    private final Timer duration;
+
+    public ReservationLifecycleJob(ReservationRepository reservationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cleanme.slots.booking-minutes:60}") int bookingMinutes,
+                                   @Value("${cleanme.lifecycle.chunk-size:500}") int chunkSize,
+                                   @Value("${cleanme.lifecycle.max-chunks:100}") int maxChunks) {
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingMinutes = bookingMinutes;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.finished = Counter.builder("cleanme.reservations.lifecycle.rows")
+                .description("Reservations moved by the lifecycle job")
+                .tag("transition", "finished")
+                .register(meterRegistry);
+        this.expired = Counter.builder("cleanme.reservations.lifecycle.rows")
+                .description("Reservations moved by the lifecycle job")
+                .tag("transition", "expired")
+                .register(meterRegistry);
+        this.duration = Timer.builder("cleanme.reservations.lifecycle.duration")
+                .description("Time taken by one lifecycle job run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cleanme.lifecycle.interval-ms:300000}")
+    public void run() {
+        duration.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime ended = now.minusMinutes(bookingMinutes);
+            finished.increment(drain(() -> reservationRepository.finishEndedBefore(
+                    ended.toLocalDate(), ended.toLocalTime(), chunkSize, ReservationStatus.FINISHED.name())));
+            expired.increment(drain(() -> reservationRepository.expirePendingStartedBefore(
+                    now.toLocalDate(), now.toLocalTime(), chunkSize, ReservationStatus.CANCELLED.name())));
+        });
+    }
+
+    private int drain(IntSupplier chunk) {
+        int total = 0;
+        for (int i = 0; i < maxChunks; i++) {
+            Integer moved = transactionTemplate.execute(status -> chunk.getAsInt());
+            int rows = moved != null ? moved : 0;
+            total += rows;
+            if (rows < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
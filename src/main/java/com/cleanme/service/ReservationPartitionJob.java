@@ -0,0 +1,81 @@
+package com.cleanme.service;
+
+import com.cleanme.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of the reservations table (V1_16).
+ * <p>
+ * Each run makes sure partitions exist from the current month to {@code monthsAhead} months out, so new
+ * bookings never land in the default partition, and moves partitions older than {@code retentionMonths}
+ * to reservations_archive. A month moves only once it has no pending, confirmed or ongoing reservations
+ * left; until then it is retried on later runs. Every month is archived in its own short transaction,
+ * since detaching locks the parent table. Partitions created and archived are published as
+ * {@code cleanme.reservations.partitions}.
+ */
+@Component
+public class ReservationPartitionJob {
+
+    static final String PARTITION_PREFIX = "reservations_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Counter created;
+    private final Counter archived;
+
+    public ReservationPartitionJob(ReservationRepository reservationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cleanme.partitions.months-ahead:12}") int monthsAhead,
+                                   @Value("${cleanme.partitions.retention-months:12}") int retentionMonths) {
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.created = Counter.builder("cleanme.reservations.partitions")
+                .description("Reservation partitions changed by the partition job")
+                .tag("action", "created")
+                .register(meterRegistry);
+        this.archived = Counter.builder("cleanme.reservations.partitions")
+                .description("Reservation partitions changed by the partition job")
+                .tag("action", "archived")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cleanme.partitions.interval-ms:86400000}",
+            initialDelayString = "${cleanme.partitions.initial-delay-ms:60000}")
+    public void run() {
+        run(YearMonth.now());
+    }
+
+    void run(YearMonth current) {
+        Integer made = transactionTemplate.execute(status ->
+                reservationRepository.ensurePartitions(current.atDay(1), monthsAhead + 1));
+        created.increment(made != null ? made : 0);
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        List<String> partitions = transactionTemplate.execute(status -> reservationRepository.findPartitionNames());
+        for (String partition : partitions != null ? partitions : List.<String>of()) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+            if (!month.isBefore(oldestKept)) {
+                break; // names sort chronologically
+            }
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reservationRepository.archivePartition(month.atDay(1))))) {
+                archived.increment();
+            }
+        }
+    }
+}
@@ -1,120 +1,116 @@
 package com.cleanme.service;
 
+import com.cleanme.dto.CreateRecurringReservationDto;
 import com.cleanme.dto.CreateReservationDto;
+import com.cleanme.dto.CursorPage;
 import com.cleanme.dto.ReservationDto;
+import com.cleanme.dto.ReservationHistoryFilter;
 import com.cleanme.dto.UpdateReservationDto;
+import com.cleanme.entity.OutboxEventEntity;
 import com.cleanme.entity.ReservationEntity;
-import com.cleanme.enums.ReservationStatus;
+import com.cleanme.entity.ReservationViewEntity;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.ReservationEventType;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.exception.ConflictException;
 import com.cleanme.exception.EntityNotFoundException;
+import com.cleanme.exception.PreconditionFailedException;
 import com.cleanme.exception.UnauthorizedException;
+import com.cleanme.repository.OutboxEventRepository;
 import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.TransactionCallbacks;
 import jakarta.transaction.Transactional;
 import org.hibernate.annotations.NotFound;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 
 @Service
 public class ReservationService {
 
+    // covers any calendar month view including the partial weeks around it
+    static final int MAX_BOOKED_RANGE_DAYS = 62;
+    static final int MAX_SERIES_OCCURRENCES = 52;
+    static final int DEFAULT_SLOT_GRANULARITY = 30;
+    static final int MAX_STATUS_ATTEMPTS = 3;
 
     private final ReservationRepository reservationRepository;
     private final UsersRepository usersRepository;
+    private final SlotEngine slotEngine;
+    private final SlotLocks slotLocks;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ReservationViewRepository reservationViewRepository;
+    private final CleanerStatsService cleanerStatsService;
+    private final TransactionTemplate transactionTemplate;
 
-    private ReservationDto mapToReservationDto(ReservationEntity reservation) {
-        String cleanerName = reservation.getCleaner() != null
-                ? reservation.getCleaner().getFirstName() + " " + reservation.getCleaner().getLastName()
-                : null;
-        
-        String clientName = reservation.getUser() != null
-                ? reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName()
-                : null;
-        
-        String clientPhone = reservation.getUser() != null
-                ? reservation.getUser().getPhone()
-                : null;
-
-        return new ReservationDto(
-                reservation.getRid(),
-                reservation.getDate(),
-                reservation.getTime(),
-                reservation.getLocation(),
-                reservation.getStatus(), // ako koristiš enum
-                reservation.getComment(),
-                cleanerName,
-                clientName,
-                clientPhone
-        );
-    }
-
-    public ReservationService(ReservationRepository reservationRepository, UsersRepository usersRepository) {
+    public ReservationService(ReservationRepository reservationRepository, UsersRepository usersRepository,
+                              SlotEngine slotEngine, SlotLocks slotLocks, OutboxEventRepository outboxEventRepository,
+                              ReservationViewRepository reservationViewRepository, CleanerStatsService cleanerStatsService,
+                              PlatformTransactionManager transactionManager) {
         this.reservationRepository = reservationRepository;
         this.usersRepository = usersRepository;
+        this.slotEngine = slotEngine;
+        this.slotLocks = slotLocks;
+        this.outboxEventRepository = outboxEventRepository;
+        this.reservationViewRepository = reservationViewRepository;
+        this.cleanerStatsService = cleanerStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<ReservationDto> getReservations(UUID id){
-        return reservationRepository.findByUser_Uid(id).stream().map(this::mapToReservationDto).toList();
+        return reservationViewRepository.findDtosByClientId(id);
+    }
+
+    // One page of the client's history, filtered by status and date range, newest first
+    public CursorPage<ReservationDto> getReservationsPage(UUID id, ReservationHistoryFilter filter) {
+        return ReservationHistoryPages.page(filter,
+                (statuses, anyStatus, from, to, limit) -> reservationViewRepository.findClientHistoryFirstPage(
+                        id, statuses, anyStatus, from, to, limit),
+                (statuses, anyStatus, from, to, afterDate, afterTime, afterRid, limit) -> reservationViewRepository.findClientHistoryAfter(
+                        id, statuses, anyStatus, from, to, afterDate, afterTime, afterRid, limit));
     }
 
     public ReservationDto getReservation(UUID id){
-        ReservationEntity reservation = reservationRepository.findReservationEntityByRid(id)
+        return reservationViewRepository.findDtoByRid(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reservation", id));
-
-        String cleanerName = reservation.getCleaner() != null
-                ? reservation.getCleaner().getFirstName() + " " + reservation.getCleaner().getLastName()
-                : null;
-        
-        String clientName = reservation.getUser() != null
-                ? reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName()
-                : null;
-        
-        String clientPhone = reservation.getUser() != null
-                ? reservation.getUser().getPhone()
-                : null;
-
-        return new ReservationDto(
-                reservation.getRid(),
-                reservation.getDate(),
-                reservation.getTime(),
-                reservation.getLocation(),
-                reservation.getStatus(),
-                reservation.getComment(),
-                cleanerName,
-                clientName,
-                clientPhone
-        );
     }
 
     public List<String> getBookedTimeSlots(UUID cleanerId, LocalDate date) {
-        System.out.println("Fetching booked time slots for cleaner: " + cleanerId + " on date: " + date);
-        
-        // Find all reservations for this cleaner on this specific date
-        List<ReservationEntity> reservations = reservationRepository.findByCleaner_Uid(cleanerId)
-                .stream()
-                .filter(reservation -> reservation.getDate().equals(date))
-                .filter(reservation -> reservation.getStatus() != ReservationStatus.CANCELLED)
-                .collect(Collectors.toList());
-        
-        // Extract time slots and convert to string format
-        List<String> bookedTimes = reservations.stream()
-                .map(reservation -> reservation.getTime().toString())
-                .collect(Collectors.toList());
-        
-        System.out.println("Found " + bookedTimes.size() + " booked time slots: " + bookedTimes);
-        return bookedTimes;
+        return reservationRepository.findBookedSlots(cleanerId, date, date).stream()
+                .map(slot -> slot.getTime().toString())
+                .toList();
+    }
+
+    // Booked start times per day over [from, to], for calendar views; one query regardless of the number of days
+    public Map<LocalDate, List<LocalTime>> getBookedTimeSlots(UUID cleanerId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BusinessLogicException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_BOOKED_RANGE_DAYS) {
+            throw new BusinessLogicException("Date range must not exceed " + MAX_BOOKED_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, List<LocalTime>> booked = new TreeMap<>();
+        for (ReservationRepository.BookedSlotRow slot : reservationRepository.findBookedSlots(cleanerId, from, to)) {
+            booked.computeIfAbsent(slot.getDate(), day -> new ArrayList<>()).add(slot.getTime());
+        }
+        return booked;
     }
 
     @Transactional
     public ReservationDto createReservation(UUID myId, CreateReservationDto dto) {
-        System.out.println("--------------------------------------------------------------------");
-        System.out.println(dto);
-        System.out.println("--------------------------------------------------------------------");
         UsersEntity user = usersRepository.findUsersEntityByUid(myId).orElseThrow(() -> new EntityNotFoundException("User", myId));
         UsersEntity cleaner = usersRepository.findUsersEntityByUid(dto.getCleanerID()).orElseThrow(() -> new EntityNotFoundException("Cleaner", dto.getCleanerID()));
 
@@ -127,66 +123,165 @@ public class ReservationService {
         reservation.setStatus(dto.getStatus());
         reservation.setComment(dto.getComment());
 
-        ReservationEntity saved = reservationRepository.save(reservation);
+        ReservationEntity saved = holdsSlot(reservation.getStatus())
+                ? slotLocks.withCleanerLocked(cleaner.getUid(), () -> claimSlot(reservation))
+                : reservationRepository.save(reservation);
+        if (holdsSlot(saved.getStatus())) {
+            TransactionCallbacks.afterCommit(() -> slotEngine.book(cleaner.getUid(), saved.getDate(), saved.getTime()));
+        }
+        outboxEventRepository.save(event(ReservationEventType.CREATED, saved));
+        cleanerStatsService.record(List.of(
+                CleanerStatsService.Change.added(cleaner.getUid(), saved.getDate(), saved.getStatus())));
 
-        String cleanerName = cleaner.getFirstName() + " " + cleaner.getLastName();
-        String clientName = user.getFirstName() + " " + user.getLastName();
-        String clientPhone = user.getPhone();
+        ReservationViewEntity view = newView(saved);
+        reservationViewRepository.save(view);
+        return toDto(view);
+    }
 
-        return new ReservationDto(
-                saved.getRid(),
-                saved.getDate(),
-                saved.getTime(),
-                saved.getLocation(),
-                saved.getStatus(),
-                saved.getComment(),
-                cleanerName,
-                clientName,
-                clientPhone
-        );
+    // Books every occurrence of a weekly or biweekly series or none of them: one conflict query for all
+    // dates, then a single batched insert
+    @Transactional
+    public List<ReservationDto> createRecurringReservations(UUID myId, CreateRecurringReservationDto dto) {
+        // also checked by bean validation on the endpoint, but the batch size must hold for every caller
+        if (dto.getFrequency() == null || dto.getOccurrences() == null
+                || dto.getOccurrences() < 1 || dto.getOccurrences() > MAX_SERIES_OCCURRENCES) {
+            throw new BusinessLogicException("A series needs a frequency and 1 to " + MAX_SERIES_OCCURRENCES + " occurrences");
+        }
+        UsersEntity user = usersRepository.findUsersEntityByUid(myId).orElseThrow(() -> new EntityNotFoundException("User", myId));
+        UsersEntity cleaner = usersRepository.findUsersEntityByUid(dto.getCleanerId()).orElseThrow(() -> new EntityNotFoundException("Cleaner", dto.getCleanerId()));
+
+        List<LocalDate> dates = new ArrayList<>(dto.getOccurrences());
+        for (int i = 0; i < dto.getOccurrences(); i++) {
+            dates.add(dto.getStartDate().plusWeeks((long) i * dto.getFrequency().getWeeks()));
+        }
+
+        List<ReservationEntity> saved = slotLocks.withCleanerLocked(cleaner.getUid(), () -> {
+            List<LocalDate> taken = reservationRepository.findActiveBookingDates(cleaner.getUid(), dto.getTime(), dates);
+            if (!taken.isEmpty()) {
+                throw new ConflictException("Cleaner is already booked at " + dto.getTime() + " on " + taken);
+            }
+            List<ReservationEntity> series = new ArrayList<>(dates.size());
+            for (LocalDate date : dates) {
+                ReservationEntity reservation = new ReservationEntity();
+                reservation.setUser(user);
+                reservation.setCleaner(cleaner);
+                reservation.setDate(date);
+                reservation.setTime(dto.getTime());
+                reservation.setLocation(dto.getLocation());
+                reservation.setStatus(ReservationStatus.PENDING);
+                reservation.setComment(dto.getComment());
+                series.add(reservation);
+            }
+            try {
+                List<ReservationEntity> inserted = reservationRepository.saveAll(series);
+                reservationRepository.flush();
+                return inserted;
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Cleaner is already booked for part of this series", e);
+            }
+        });
+        TransactionCallbacks.afterCommit(() -> saved.forEach(reservation ->
+                slotEngine.book(cleaner.getUid(), reservation.getDate(), reservation.getTime())));
+        outboxEventRepository.saveAll(saved.stream()
+                .map(reservation -> event(ReservationEventType.CREATED, reservation))
+                .toList());
+        cleanerStatsService.record(saved.stream()
+                .map(reservation -> CleanerStatsService.Change.added(cleaner.getUid(), reservation.getDate(), reservation.getStatus()))
+                .toList());
+
+        List<ReservationViewEntity> views = saved.stream()
+                .map(ReservationService::newView)
+                .toList();
+        reservationViewRepository.saveAll(views);
+        return views.stream()
+                .map(ReservationService::toDto)
+                .toList();
     }
 
+    // With an expected version (the If-Match of PUT /reservation/{id}) the update only applies to that
+    // version; a concurrent commit between our read and write is caught by the @Version check on flush
     @Transactional
-    public ReservationDto updateReservationDto(UUID id, UUID myID, UpdateReservationDto dto) {
+    public ReservationDto updateReservationDto(UUID id, UUID myID, UpdateReservationDto dto, Long expectedVersion) {
         ReservationEntity reservation = reservationRepository.findReservationEntityByRid(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reservation", id));
         UsersEntity cleaner = usersRepository.findUsersEntityByUid(dto.getCleanerId()).orElseThrow(() -> new EntityNotFoundException("Cleaner", dto.getCleanerId()));
 
         // Allow both clients and cleaners to update reservations
-        boolean isClient = reservation.getUser().getUid().equals(myID);
-        boolean isCleaner = reservation.getCleaner() != null && reservation.getCleaner().getUid().equals(myID);
-        
-        if (!isClient && !isCleaner) {
-            throw new UnauthorizedException("Not authorized to update this reservation"); 
+        checkParticipant(reservation, myID);
+        if (expectedVersion != null && expectedVersion != reservation.getVersion()) {
+            throw new PreconditionFailedException("Reservation " + id + " is at version " + reservation.getVersion());
         }
 
+        Snapshot previous = Snapshot.of(reservation);
         reservation.setCleaner(cleaner);
         reservation.setDate(dto.getDate());
         reservation.setTime(dto.getTime());
         reservation.setLocation(dto.getLocation());
         reservation.setStatus(dto.getStatus());
         reservation.setComment(dto.getComment());
+        return saveChange(reservation, previous);
+    }
 
-        ReservationEntity saved = reservationRepository.save(reservation);
+    // Server-side status transition, e.g. a cleaner confirming a booking. The new status does not depend on
+    // the rest of the row, so when a concurrent edit wins the version check the transition is re-applied
+    // to the fresh row instead of failing, up to MAX_STATUS_ATTEMPTS times. No row lock is held meanwhile.
+    public ReservationDto changeStatus(UUID id, UUID myID, ReservationStatus status) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(tx -> applyStatus(id, myID, status));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_STATUS_ATTEMPTS) {
+                    throw new ConflictException("Reservation " + id + " kept changing, status not updated", e);
+                }
+            }
+        }
+    }
 
-        String cleanerName = cleaner != null ? cleaner.getFirstName() + " " + cleaner.getLastName() : null;
-        String clientName = reservation.getUser() != null 
-                ? reservation.getUser().getFirstName() + " " + reservation.getUser().getLastName() 
-                : null;
-        String clientPhone = reservation.getUser() != null 
-                ? reservation.getUser().getPhone() 
-                : null;
+    private ReservationDto applyStatus(UUID id, UUID myID, ReservationStatus status) {
+        ReservationEntity reservation = reservationRepository.findReservationEntityByRid(id)
+                .orElseThrow(() -> new EntityNotFoundException("Reservation", id));
+        checkParticipant(reservation, myID);
+        if (reservation.getStatus() == status) {
+            return toDto(view(reservation));
+        }
+        Snapshot previous = Snapshot.of(reservation);
+        reservation.setStatus(status);
+        return saveChange(reservation, previous);
+    }
+
+    // Writes a changed reservation and everything derived from it: slot calendar, outbox, stats and read model.
+    // Flushed here so version conflicts surface inside the service and the returned version is the new one.
+    private ReservationDto saveChange(ReservationEntity reservation, Snapshot previous) {
+        UUID cleanerId = reservation.getCleaner().getUid();
+        ReservationEntity saved = holdsSlot(reservation.getStatus())
+                ? slotLocks.withCleanerLocked(cleanerId, () -> claimSlot(reservation))
+                : reservationRepository.saveAndFlush(reservation);
+        boolean previouslyHeld = holdsSlot(previous.status());
+        boolean held = holdsSlot(saved.getStatus());
+        TransactionCallbacks.afterCommit(() -> {
+            if (previouslyHeld) {
+                slotEngine.release(previous.cleanerId(), previous.date(), previous.time());
+            }
+            if (held) {
+                slotEngine.book(cleanerId, saved.getDate(), saved.getTime());
+            }
+        });
+        outboxEventRepository.save(event(ReservationEventType.UPDATED, saved));
+        cleanerStatsService.record(List.of(
+                CleanerStatsService.Change.removed(previous.cleanerId(), previous.date(), previous.status()),
+                CleanerStatsService.Change.added(cleanerId, saved.getDate(), saved.getStatus())));
+
+        ReservationViewEntity view = view(saved);
+        reservationViewRepository.save(view);
+        return toDto(view);
+    }
 
-        return  new ReservationDto(
-                saved.getRid(),
-                saved.getDate(),
-                saved.getTime(),
-                saved.getLocation(),
-                saved.getStatus(),
-                saved.getComment(),
-                cleanerName,
-                clientName,
-                clientPhone);
+    private static void checkParticipant(ReservationEntity reservation, UUID myID) {
+        boolean isClient = reservation.getUser().getUid().equals(myID);
+        boolean isCleaner = reservation.getCleaner() != null && reservation.getCleaner().getUid().equals(myID);
+        if (!isClient && !isCleaner) {
+            throw new UnauthorizedException("Not authorized to update this reservation");
+        }
     }
 
     @Transactional
@@ -199,5 +294,112 @@ public class ReservationService {
         }
 
         this.reservationRepository.deleteByRid(id);
+        reservationViewRepository.deleteById(id);
+        outboxEventRepository.save(event(ReservationEventType.DELETED, reservation));
+        cleanerStatsService.record(List.of(CleanerStatsService.Change.removed(
+                reservation.getCleaner().getUid(), reservation.getDate(), reservation.getStatus())));
+        if (holdsSlot(reservation.getStatus())) {
+            UUID cleanerId = reservation.getCleaner().getUid();
+            LocalDate date = reservation.getDate();
+            LocalTime time = reservation.getTime();
+            TransactionCallbacks.afterCommit(() -> slotEngine.release(cleanerId, date, time));
+        }
+    }
+
+    public Map<LocalDate, List<LocalTime>> getFreeSlots(UUID cleanerId, LocalDate from, LocalDate to, Integer granularity) {
+        return slotEngine.freeSlots(cleanerId, from, to, granularity != null ? granularity : DEFAULT_SLOT_GRANULARITY);
+    }
+
+    // Caller holds the cleaner's slot lock. The check catches conflicts within this instance; the partial
+    // unique index uq_reservations_active_slot catches the rest at insert or update time.
+    private ReservationEntity claimSlot(ReservationEntity reservation) {
+        UUID cleanerId = reservation.getCleaner().getUid();
+        try {
+            boolean taken = reservation.getRid() == null
+                    ? reservationRepository.existsActiveBooking(cleanerId, reservation.getDate(), reservation.getTime())
+                    : reservationRepository.existsOtherActiveBooking(cleanerId, reservation.getDate(), reservation.getTime(), reservation.getRid());
+            if (taken) {
+                throw new ConflictException(slotTakenMessage(reservation));
+            }
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException(slotTakenMessage(reservation), e);
+        }
+    }
+
+    // the view row of a reservation inserted in this transaction, saved without a merge lookup
+    private static ReservationViewEntity newView(ReservationEntity reservation) {
+        ReservationViewEntity view = view(reservation);
+        view.setNewRow(true);
+        return view;
+    }
+
+    // The read-model row for a reservation; saved in the caller's transaction so listings never see a
+    // reservation without it
+    private static ReservationViewEntity view(ReservationEntity reservation) {
+        ReservationViewEntity view = new ReservationViewEntity();
+        view.setRid(reservation.getRid());
+        view.setClientId(reservation.getUser().getUid());
+        view.setCleanerId(reservation.getCleaner().getUid());
+        view.setDate(reservation.getDate());
+        view.setTime(reservation.getTime());
+        view.setLocation(reservation.getLocation());
+        view.setStatus(reservation.getStatus());
+        view.setComment(reservation.getComment());
+        view.setCleanerName(fullName(reservation.getCleaner()));
+        view.setClientName(fullName(reservation.getUser()));
+        view.setClientPhone(reservation.getUser().getPhone());
+        view.setVersion(reservation.getVersion());
+        view.setUpdatedAt(LocalDateTime.now());
+        return view;
+    }
+
+    private static ReservationDto toDto(ReservationViewEntity view) {
+        return new ReservationDto(
+                view.getRid(),
+                view.getDate(),
+                view.getTime(),
+                view.getLocation(),
+                view.getStatus(),
+                view.getComment(),
+                view.getCleanerName(),
+                view.getClientName(),
+                view.getClientPhone(),
+                view.getVersion());
+    }
+
+    static String fullName(UsersEntity user) {
+        return user.getFirstName() + " " + user.getLastName();
+    }
+
+    // Written in the caller's transaction, so the event exists exactly when the change it describes committed
+    private static OutboxEventEntity event(ReservationEventType type, ReservationEntity reservation) {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setType(type);
+        event.setReservationId(reservation.getRid());
+        event.setClientId(reservation.getUser() != null ? reservation.getUser().getUid() : null);
+        event.setCleanerId(reservation.getCleaner() != null ? reservation.getCleaner().getUid() : null);
+        event.setDate(reservation.getDate());
+        event.setTime(reservation.getTime());
+        event.setStatus(reservation.getStatus());
+        return event;
+    }
+
+    private static String slotTakenMessage(ReservationEntity reservation) {
+        return "Cleaner is already booked on " + reservation.getDate() + " at " + reservation.getTime();
+    }
+
+    // The fields an update can move a reservation away from
+    private record Snapshot(UUID cleanerId, LocalDate date, LocalTime time, ReservationStatus status) {
+
+        static Snapshot of(ReservationEntity reservation) {
+            return new Snapshot(reservation.getCleaner() != null ? reservation.getCleaner().getUid() : null,
+                    reservation.getDate(), reservation.getTime(), reservation.getStatus());
+        }
+    }
+
+    // cancelled reservations do not block the cleaner's time
+    private static boolean holdsSlot(ReservationStatus status) {
+        return status != ReservationStatus.CANCELLED;
     }
 }
@@ -1,37 +1,56 @@
 package com.cleanme.service;
 
+import com.cleanme.configuration.CacheConfig;
 import com.cleanme.dto.BookingWithReviewDto;
+import com.cleanme.dto.CursorPage;
 import com.cleanme.dto.EditReviewDto;
 import com.cleanme.dto.ReviewDto;
 import com.cleanme.entity.ReservationEntity;
 import com.cleanme.entity.ReviewEntity;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRatingStatsRepository;
 import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.ReviewRepository;
 import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.TransactionCallbacks;
+import jakarta.transaction.Transactional;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final ReservationRepository reservationRepository;
+    private final ReservationViewRepository reservationViewRepository;
     private final UsersRepository usersRepository;
+    private final CleanerRatingStatsRepository cleanerRatingStatsRepository;
+    private final CleanerScores cleanerScores;
 
     public ReviewService(ReviewRepository reviewRepository,
                          ReservationRepository reservationRepository,
-                         UsersRepository usersRepository) {
+                         ReservationViewRepository reservationViewRepository,
+                         UsersRepository usersRepository,
+                         CleanerRatingStatsRepository cleanerRatingStatsRepository,
+                         CleanerScores cleanerScores) {
         this.reviewRepository = reviewRepository;
         this.reservationRepository = reservationRepository;
+        this.reservationViewRepository = reservationViewRepository;
         this.usersRepository = usersRepository;
+        this.cleanerRatingStatsRepository = cleanerRatingStatsRepository;
+        this.cleanerScores = cleanerScores;
     }
 
+    // The rating aggregate is updated in the same transaction; the cached profile showing it is evicted on commit
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#result.cleanerId")
     public ReviewDto  reviewReservation(UUID reservationId, ReviewDto dto) {
         ReservationEntity reservation = reservationRepository
                 .findReservationEntityByRid(reservationId)
@@ -39,6 +58,7 @@ public class ReviewService {
         if (reservation == null) {
             throw new RuntimeException("Reservation Not Found");
         }
+        checkRating(dto.getRating());
 
         ReviewEntity review = new ReviewEntity();
         review.setReservation(reservation);
@@ -49,6 +69,8 @@ public class ReviewService {
         review.setDate(LocalDate.now());
 
         ReviewEntity saved = reviewRepository.save(review);
+        cleanerRatingStatsRepository.adjust(saved.getCleaner().getUid(), saved.getRating(), 1);
+        TransactionCallbacks.afterCommit(() -> cleanerScores.recordReview(saved.getCleaner().getUid(), saved.getRating()));
         return mapToDto(saved);
 
 
@@ -65,6 +87,19 @@ public class ReviewService {
                 .toList();
     }
 
+    /**
+     * Newest-first page of a cleaner's reviews, keyed on (date, id). Each page is one projection query
+     * seeking past the last row of the previous one; an unknown cleaner simply has no reviews.
+     */
+    public CursorPage<ReviewDto> getReviewsForCleanerPage(UUID cleanerId, Integer size, String cursor) {
+        return KeysetPages.page(size, cursor, 2,
+                limit -> reviewRepository.findCleanerFeedFirstPage(cleanerId, limit),
+                (after, limit) -> reviewRepository.findCleanerFeedAfter(
+                        cleanerId, KeysetPages.date(after[0]), KeysetPages.uuid(after[1]), limit),
+                last -> new Object[]{last.getDate(), last.getId()},
+                Function.identity());
+    }
+
     private ReviewDto mapToDto(ReviewEntity entity) {
         ReviewDto dto = new ReviewDto();
         dto.setId(entity.getId());
@@ -90,54 +125,73 @@ public class ReviewService {
                 .toList();
     }
 
+    // Every booking of the user with its review, from the same join query as the paged endpoint
     public List<BookingWithReviewDto> getBookingsWithReviewsForUser(UUID userId) {
-        UsersEntity user = usersRepository.findUsersEntityByUid(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return reservationViewRepository.findBookingsWithReviews(userId).stream()
+                .map(row -> toBookingDto(userId, row))
+                .toList();
+    }
 
-        List<ReservationEntity> reservations = reservationRepository.findByUser_Uid(userId);
-        List<ReviewEntity> reviews = reviewRepository.findByUser(user);
+    /**
+     * Newest-first page of the user's bookings, each with its review if one was left, keyed on
+     * (date, time, rid). Bookings come from reservation_view, so archived reservations stay listed;
+     * legacy bookings without a date or time are only in {@link #getBookingsWithReviewsForUser}.
+     */
+    public CursorPage<BookingWithReviewDto> getBookingsWithReviewsPage(UUID userId, Integer size, String cursor) {
+        return KeysetPages.page(size, cursor, 3,
+                limit -> reservationViewRepository.findBookingsWithReviewsFirstPage(userId, limit),
+                (after, limit) -> reservationViewRepository.findBookingsWithReviewsAfter(userId,
+                        KeysetPages.date(after[0]), KeysetPages.time(after[1]), KeysetPages.uuid(after[2]), limit),
+                last -> new Object[]{last.getDate(), last.getTime(), last.getRid()},
+                row -> toBookingDto(userId, row));
+    }
 
-        // Map reviews by reservation ID for quick lookup
-        Map<UUID, ReviewEntity> reviewMap = reviews.stream()
-                .collect(Collectors.toMap(
-                        r -> r.getReservation().getRid(),
-                        r -> r
-                ));
-
-        return reservations.stream()
-                .map(reservation -> {
-                    BookingWithReviewDto dto = new BookingWithReviewDto();
-                    dto.setBookingId(reservation.getRid());
-                    dto.setDate(reservation.getDate());
-                    dto.setTime(reservation.getTime());
-                    dto.setLocation(reservation.getLocation());
-                    dto.setComment(reservation.getComment());
-                    dto.setStatus(reservation.getStatus()); // ✅ Include status
-
-                    UsersEntity cleaner = reservation.getCleaner();
-                    dto.setCleanerId(cleaner.getUid());
-                    dto.setCleanerName(cleaner.getFirstName() + " " + cleaner.getLastName());
-
-                    // Add review if it exists
-                    if (reviewMap.containsKey(reservation.getRid())) {
-                        dto.setReview(mapToDto(reviewMap.get(reservation.getRid())));
-                    }
-
-                    return dto;
-                })
-                .toList();
+    private static BookingWithReviewDto toBookingDto(UUID userId, ReservationViewRepository.BookingReviewRow row) {
+        BookingWithReviewDto dto = new BookingWithReviewDto();
+        dto.setBookingId(row.getRid());
+        dto.setDate(row.getDate());
+        dto.setTime(row.getTime());
+        dto.setLocation(row.getLocation());
+        dto.setComment(row.getComment());
+        dto.setStatus(row.getStatus());
+        dto.setCleanerId(row.getCleanerId());
+        dto.setCleanerName(row.getCleanerName());
+        if (row.getReviewId() != null) {
+            dto.setReview(new ReviewDto(row.getReviewId(), row.getRid(), row.getCleanerId(), userId,
+                    row.getRating(), row.getReviewComment(), row.getReviewDate(), row.getCleanerName()));
+        }
+        return dto;
     }
 
-    public void updateReview(UUID reviewId, EditReviewDto reviewDto) {
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#result.cleanerId")
+    public ReviewDto updateReview(UUID reviewId, EditReviewDto reviewDto) {
         ReviewEntity existingReview = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
+        checkRating(reviewDto.getRating());
 
+        int oldRating = existingReview.getRating();
         existingReview.setRating(reviewDto.getRating());
         existingReview.setComment(reviewDto.getComment());
         existingReview.setDate(LocalDate.now());
         // Add any other fields you allow to be updated
 
         reviewRepository.save(existingReview);
+        UUID cleanerId = existingReview.getCleaner().getUid();
+        if (oldRating != existingReview.getRating()) {
+            cleanerRatingStatsRepository.adjust(cleanerId, oldRating, -1);
+            cleanerRatingStatsRepository.adjust(cleanerId, existingReview.getRating(), 1);
+        }
+        TransactionCallbacks.afterCommit(() ->
+                cleanerScores.replaceRating(cleanerId, oldRating, existingReview.getRating()));
+        return mapToDto(existingReview);
+    }
+
+    // The star histogram only has buckets 1 to 5
+    private static void checkRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new BusinessLogicException("Rating must be between 1 and 5");
+        }
     }
 
 
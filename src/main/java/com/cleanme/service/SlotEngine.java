@@ -0,0 +1,190 @@
+package com.cleanme.service;
+
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRepository;
+import com.cleanme.repository.ReservationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Answers "which start times can I book with this cleaner?" for a date range.
+ * <p>
+ * For each cleaner it keeps the weekly availability as minute intervals per weekday and the start
+ * minutes of non-cancelled bookings per date over a fixed horizon. A start {@code t} is free when
+ * {@code [t, t + bookingMinutes)} lies inside an availability interval and no booking starts within
+ * {@code bookingMinutes} of it, which is the availability minus the booked intervals.
+ * <p>
+ * Calendars are built on first use with two projection queries and kept in a bounded cache.
+ * Reservation writes adjust them in place through {@link #book} and {@link #release}; availability
+ * changes drop the cleaner's calendar through {@link #invalidate}.
+ */
+@Component
+public class SlotEngine {
+
+    static final int MIN_GRANULARITY = 5;
+    static final int MAX_GRANULARITY = 240;
+
+    private final CleanerRepository cleanerRepository;
+    private final ReservationRepository reservationRepository;
+    private final int bookingMinutes;
+    private final int horizonDays;
+    private final Cache<UUID, Calendar> calendars;
+
+    public SlotEngine(CleanerRepository cleanerRepository,
+                      ReservationRepository reservationRepository,
+                      @Value("${cleanme.slots.booking-minutes:60}") int bookingMinutes,
+                      @Value("${cleanme.slots.horizon-days:90}") int horizonDays,
+                      @Value("${cleanme.slots.max-cleaners:10000}") long maxCleaners,
+                      @Value("${cleanme.slots.ttl-minutes:10}") long ttlMinutes) {
+        this.cleanerRepository = cleanerRepository;
+        this.reservationRepository = reservationRepository;
+        this.bookingMinutes = bookingMinutes;
+        this.horizonDays = horizonDays;
+        // the TTL bounds how long a booking committed while a calendar was loading can go unseen
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxCleaners)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * Free start times per day over [from, to], stepping by {@code granularity} minutes. Days before
+     * today and today's start times up to now are skipped; days without a free slot are left out.
+     */
+    public Map<LocalDate, List<LocalTime>> freeSlots(UUID cleanerId, LocalDate from, LocalDate to, int granularity) {
+        if (to.isBefore(from)) {
+            throw new BusinessLogicException("'to' must not be before 'from'");
+        }
+        if (granularity < MIN_GRANULARITY || granularity > MAX_GRANULARITY) {
+            throw new BusinessLogicException("Granularity must be between " + MIN_GRANULARITY + " and " + MAX_GRANULARITY + " minutes");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        if (to.isAfter(today.plusDays(horizonDays))) {
+            throw new BusinessLogicException("Free slots are only available " + horizonDays + " days ahead");
+        }
+        LocalDate start = from.isBefore(today) ? today : from;
+
+        Map<LocalDate, List<LocalTime>> free = new TreeMap<>();
+        if (start.isAfter(to)) {
+            return free;
+        }
+        Calendar calendar = calendar(cleanerId, today);
+        for (LocalDate date = start; !date.isAfter(to); date = date.plusDays(1)) {
+            // today, only starts after the current minute can still be booked
+            int notAfter = date.equals(today) ? minuteOfDay(now.toLocalTime()) : -1;
+            List<LocalTime> slots = calendar.freeOn(date, granularity, bookingMinutes, notAfter);
+            if (!slots.isEmpty()) {
+                free.put(date, slots);
+            }
+        }
+        return free;
+    }
+
+    public void book(UUID cleanerId, LocalDate date, LocalTime time) {
+        Calendar calendar = calendars.getIfPresent(cleanerId);
+        if (calendar != null && date != null && time != null) {
+            calendar.book(date, minuteOfDay(time));
+        }
+    }
+
+    public void release(UUID cleanerId, LocalDate date, LocalTime time) {
+        Calendar calendar = calendars.getIfPresent(cleanerId);
+        if (calendar != null && date != null && time != null) {
+            calendar.release(date, minuteOfDay(time));
+        }
+    }
+
+    public void invalidate(UUID cleanerId) {
+        calendars.invalidate(cleanerId);
+    }
+
+    private Calendar calendar(UUID cleanerId, LocalDate today) {
+        Calendar calendar = calendars.getIfPresent(cleanerId);
+        // a calendar loaded on an earlier day no longer covers the whole horizon
+        if (calendar == null || calendar.loadedOn.isBefore(today)) {
+            calendar = load(cleanerId, today);
+            calendars.put(cleanerId, calendar);
+        }
+        return calendar;
+    }
+
+    private Calendar load(UUID cleanerId, LocalDate today) {
+        Map<DayOfWeek, List<int[]>> weekly = new EnumMap<>(DayOfWeek.class);
+        for (CleanerRepository.CleanerSlotRow slot : cleanerRepository.findSlotsByCleaner(cleanerId)) {
+            weekly.computeIfAbsent(slot.getDayOfWeek(), day -> new ArrayList<>())
+                    .add(new int[]{minuteOfDay(slot.getStartTime()), minuteOfDay(slot.getEndTime())});
+        }
+        Calendar calendar = new Calendar(today, weekly);
+        for (ReservationRepository.BookedSlotRow booking : reservationRepository.findBookedSlots(cleanerId, today, today.plusDays(horizonDays))) {
+            if (booking.getTime() != null) {
+                calendar.book(booking.getDate(), minuteOfDay(booking.getTime()));
+            }
+        }
+        return calendar;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static final class Calendar {
+
+        final LocalDate loadedOn;
+        final Map<DayOfWeek, List<int[]>> weekly;
+        // date -> booking start minute -> number of bookings starting then
+        final Map<LocalDate, NavigableMap<Integer, Integer>> booked = new HashMap<>();
+
+        Calendar(LocalDate loadedOn, Map<DayOfWeek, List<int[]>> weekly) {
+            this.loadedOn = loadedOn;
+            this.weekly = weekly;
+        }
+
+        synchronized void book(LocalDate date, int minute) {
+            booked.computeIfAbsent(date, day -> new TreeMap<>()).merge(minute, 1, Integer::sum);
+        }
+
+        synchronized void release(LocalDate date, int minute) {
+            NavigableMap<Integer, Integer> day = booked.get(date);
+            if (day == null) {
+                return;
+            }
+            day.computeIfPresent(minute, (start, count) -> count > 1 ? count - 1 : null);
+            if (day.isEmpty()) {
+                booked.remove(date);
+            }
+        }
+
+        // starts at or before minute notAfter are left out
+        synchronized List<LocalTime> freeOn(LocalDate date, int granularity, int length, int notAfter) {
+            List<int[]> intervals = weekly.get(date.getDayOfWeek());
+            if (intervals == null) {
+                return List.of();
+            }
+            NavigableMap<Integer, Integer> day = booked.getOrDefault(date, Collections.emptyNavigableMap());
+            TreeSet<Integer> starts = new TreeSet<>();
+            for (int[] interval : intervals) {
+                for (int start = interval[0]; start + length <= interval[1]; start += granularity) {
+                    // any booking starting in (start - length, start + length) overlaps [start, start + length)
+                    if (start > notAfter && day.subMap(start - length, false, start + length, false).isEmpty()) {
+                        starts.add(start);
+                    }
+                }
+            }
+            List<LocalTime> slots = new ArrayList<>(starts.size());
+            for (int start : starts) {
+                slots.add(LocalTime.of(start / 60, start % 60));
+            }
+            return slots;
+        }
+    }
+}
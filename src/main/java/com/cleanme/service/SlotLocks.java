@@ -0,0 +1,58 @@
+package com.cleanme.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-cleaner locks that make "is this slot free? then insert" atomic within this instance.
+ * <p>
+ * A cleaner always maps to the same stripe, so bookings for different cleaners rarely wait on each
+ * other. The lock is held until the surrounding transaction completes, which keeps the next booking
+ * for the same cleaner from checking before this one is visible. Across instances the partial unique
+ * index on (cleaner, date, time) is the backstop.
+ */
+@Component
+public class SlotLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public SlotLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withCleanerLocked(UUID cleanerId, Supplier<T> work) {
+        ReentrantLock lock = locks[stripe(cleanerId)];
+        lock.lock();
+        boolean releaseAtCompletion = false;
+        try {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                releaseAtCompletion = true;
+            }
+            return work.get();
+        } finally {
+            if (!releaseAtCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static int stripe(UUID cleanerId) {
+        int hash = cleanerId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
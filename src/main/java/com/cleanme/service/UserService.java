@@ -1,17 +1,29 @@
 package com.cleanme.service;
 
+import com.cleanme.configuration.CacheConfig;
 import com.cleanme.dto.UserDto;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.UserType;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.TransactionCallbacks;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class UserService {
     @Autowired
     private UsersRepository usersRepository;
+    @Autowired
+    private CleanerSearchIndex cleanerSearchIndex;
+    @Autowired
+    private ReservationViewRepository reservationViewRepository;
 
     public UserDto getUserById(UUID userId) {
         UsersEntity user = usersRepository.findUsersEntityByUid(userId)
@@ -19,9 +31,13 @@ public class UserService {
         return mapToDto(user);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CLEANER_PROFILES, key = "#userId")
     public UserDto updateUser(UUID userId, UserDto userDto) {
         UsersEntity user = usersRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousName = ReservationService.fullName(user);
+        String previousPhone = user.getPhone();
 
         user.setFirstName(userDto.getFirstName());
         user.setLastName(userDto.getLastName());
@@ -34,6 +50,16 @@ public class UserService {
         user.setStreetExtra(userDto.getStreetExtra());
 
         UsersEntity updatedUser = usersRepository.save(user);
+        // reservation_view copies the display fields; rewrite them only when they changed
+        String name = ReservationService.fullName(updatedUser);
+        if (!name.equals(previousName) || !Objects.equals(updatedUser.getPhone(), previousPhone)) {
+            LocalDateTime now = LocalDateTime.now();
+            reservationViewRepository.updateClient(userId, name, updatedUser.getPhone(), now);
+            reservationViewRepository.updateCleaner(userId, name, now);
+        }
+        if (updatedUser.getUserType() == UserType.CLEANER) {
+            TransactionCallbacks.afterCommit(() -> cleanerSearchIndex.updateProfile(updatedUser));
+        }
         return mapToDto(updatedUser);
     }
 
@@ -0,0 +1,100 @@
+package com.cleanme.utilities;
+
+import com.cleanme.dto.auth.CleanerSetupRequest;
+import com.cleanme.entity.AvailabilitySlot;
+import com.cleanme.exception.BusinessLogicException;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.*;
+
+/**
+ * Converts between the API shape of availability ({@code [{"Monday": {"from": "09:00", "to": "17:00"}}]})
+ * and the typed {@link AvailabilitySlot} rows stored in {@code cleaner_availability}.
+ */
+public final class AvailabilityMapper {
+
+    private static final DateTimeFormatter TIME_INPUT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final DateTimeFormatter TIME_OUTPUT = DateTimeFormatter.ofPattern("HH:mm");
+
+    public static final Comparator<AvailabilitySlot> SLOT_ORDER =
+            Comparator.comparing(AvailabilitySlot::getDayOfWeek).thenComparing(AvailabilitySlot::getStartTime);
+
+    private AvailabilityMapper() {
+    }
+
+    public static List<AvailabilitySlot> toSlots(List<Map<String, CleanerSetupRequest.TimeRange>> availability) {
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        if (availability == null) {
+            return slots;
+        }
+        for (Map<String, CleanerSetupRequest.TimeRange> entry : availability) {
+            for (Map.Entry<String, CleanerSetupRequest.TimeRange> day : entry.entrySet()) {
+                CleanerSetupRequest.TimeRange range = day.getValue();
+                if (range == null) {
+                    throw new BusinessLogicException("Missing time range for " + day.getKey());
+                }
+                LocalTime from = parseTime(range.getFrom());
+                LocalTime to = parseTime(range.getTo());
+                if (!to.isAfter(from)) {
+                    throw new BusinessLogicException("Availability on " + day.getKey() + " must end after it starts");
+                }
+                slots.add(new AvailabilitySlot(parseDay(day.getKey()), from, to));
+            }
+        }
+        slots.sort(SLOT_ORDER);
+        return slots;
+    }
+
+    public static List<Map<String, CleanerSetupRequest.TimeRange>> toDto(List<AvailabilitySlot> slots) {
+        List<Map<String, CleanerSetupRequest.TimeRange>> availability = new ArrayList<>(slots.size());
+        for (AvailabilitySlot slot : slots) {
+            CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
+            range.setFrom(slot.getStartTime().format(TIME_OUTPUT));
+            range.setTo(slot.getEndTime().format(TIME_OUTPUT));
+            availability.add(Map.of(slot.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH), range));
+        }
+        return availability;
+    }
+
+    /**
+     * Parses an optional query window; both ends must be given together and {@code to} must be after {@code from}.
+     * Returns {@code null} when neither is set.
+     */
+    public static TimeWindow parseWindow(String from, String to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        if (from == null || to == null) {
+            throw new BusinessLogicException("A time window needs both from and to");
+        }
+        LocalTime start = parseTime(from);
+        LocalTime end = parseTime(to);
+        if (!end.isAfter(start)) {
+            throw new BusinessLogicException("A time window must end after it starts");
+        }
+        return new TimeWindow(start, end);
+    }
+
+    public static DayOfWeek parseDay(String value) {
+        try {
+            return DayOfWeek.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BusinessLogicException("Unknown day of week: " + value);
+        }
+    }
+
+    public static LocalTime parseTime(String value) {
+        try {
+            return LocalTime.parse(value.trim(), TIME_INPUT);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BusinessLogicException("Invalid time: " + value);
+        }
+    }
+
+    public record TimeWindow(LocalTime from, LocalTime to) {
+    }
+}
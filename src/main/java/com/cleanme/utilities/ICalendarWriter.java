@@ -0,0 +1,87 @@
+package com.cleanme.utilities;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes an RFC 5545 calendar one event at a time, so a feed can be streamed without holding it in memory.
+ * Times are written as floating local times, matching how reservations are stored.
+ */
+public final class ICalendarWriter {
+
+    private static final String CRLF = "\r\n";
+    // content lines longer than this many octets are folded
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final Writer out;
+
+    public ICalendarWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void begin(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//CleanMe//Reservations//EN");
+        line("CALSCALE:GREGORIAN");
+        line("X-WR-CALNAME:" + escape(name));
+    }
+
+    public void event(String uid, LocalDateTime start, LocalDateTime end, LocalDateTime stamp, String status,
+                      String summary, String location, String description) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + stamp.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(UTC));
+        line("DTSTART:" + start.format(LOCAL));
+        line("DTEND:" + end.format(LOCAL));
+        line("STATUS:" + status);
+        line("SUMMARY:" + escape(summary));
+        if (location != null && !location.isBlank()) {
+            line("LOCATION:" + escape(location));
+        }
+        if (description != null && !description.isBlank()) {
+            line("DESCRIPTION:" + escape(description));
+        }
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    // Folds at 75 octets without splitting a UTF-8 sequence; continuation lines start with a space
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int limit = MAX_LINE_OCTETS;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > limit) {
+                out.write(CRLF);
+                out.write(' ');
+                octets = 0;
+                // the leading space counts towards the continuation line
+                limit = MAX_LINE_OCTETS - 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        out.write(CRLF);
+    }
+}
@@ -0,0 +1,31 @@
+-- Denormalized reservation listings (ReservationViewEntity), kept in sync by the application on every write
+CREATE TABLE IF NOT EXISTS reservation_view (
+    rid          UUID PRIMARY KEY,
+    client_id    UUID NOT NULL,
+    cleaner_id   UUID NOT NULL,
+    date         DATE,
+    time         TIME,
+    location     VARCHAR(255),
+    status       VARCHAR(255),
+    comment      VARCHAR(255),
+    cleaner_name VARCHAR(255),
+    client_name  VARCHAR(255),
+    client_phone VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_view_client ON reservation_view (client_id, date, time, rid);
+CREATE INDEX IF NOT EXISTS idx_reservation_view_cleaner ON reservation_view (cleaner_id, date, time, rid);
+
+-- Backfill from the existing reservations
+INSERT INTO reservation_view (rid, client_id, cleaner_id, date, time, location, status, comment,
+                              cleaner_name, client_name, client_phone)
+SELECT r.rid, r.user_id, r.cleaner, r.date, r.time, r.location, r.status, r.comment,
+       c.first_name || ' ' || c.last_name, u.first_name || ' ' || u.last_name, u.phone
+FROM reservations r
+JOIN users c ON c.uid = r.cleaner
+JOIN users u ON u.uid = r.user_id
+ON CONFLICT (rid) DO NOTHING;
+
+-- History pages now read reservation_view, so the V1_8 indexes on reservations only slow down writes
+DROP INDEX IF EXISTS idx_reservations_user_history;
+DROP INDEX IF EXISTS idx_reservations_cleaner_history;
@@ -0,0 +1,3 @@
+-- Last write per reservation_view row, for the Last-Modified/ETag of the calendar feeds
+ALTER TABLE reservation_view
+ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT now();
@@ -0,0 +1,3 @@
+-- Reservations the lifecycle job still has to move on; finished and cancelled rows drop out of the index
+CREATE INDEX IF NOT EXISTS idx_reservations_open_by_start ON reservations (date, time)
+    WHERE status IN ('PENDING', 'CONFIRMED', 'ONGOING');
@@ -0,0 +1,16 @@
+-- Per-cleaner reservation counts by month and status, kept current by the application's upserts
+CREATE TABLE IF NOT EXISTS cleaner_monthly_stats (
+    cleaner_id        UUID        NOT NULL,
+    month             DATE        NOT NULL,
+    status            VARCHAR(32) NOT NULL,
+    reservation_count BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (cleaner_id, month, status)
+);
+
+-- Backfill from the existing reservations
+INSERT INTO cleaner_monthly_stats (cleaner_id, month, status, reservation_count)
+SELECT cleaner, date_trunc('month', date)::date, status, COUNT(*)
+FROM reservations
+WHERE date IS NOT NULL AND status IS NOT NULL
+GROUP BY cleaner, date_trunc('month', date)::date, status
+ON CONFLICT (cleaner_id, month, status) DO NOTHING;
@@ -0,0 +1,6 @@
+-- Optimistic locking for reservations (@Version), mirrored into the read model for ETags
+ALTER TABLE reservations
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE reservation_view
+ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
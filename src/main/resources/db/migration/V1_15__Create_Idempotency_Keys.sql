@@ -0,0 +1,14 @@
+-- Responses of create requests, keyed by the client's Idempotency-Key and replayed on retries.
+-- response_body is NULL while the first request with a key is still running.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    user_id         UUID         NOT NULL,
+    scope           VARCHAR(100) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    response_body   TEXT,
+    created_at      TIMESTAMP    NOT NULL,
+    expires_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (user_id, scope, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,111 @@
+-- Range-partitions reservations by month of date. Queries that bound the date (slot checks, booked
+-- slots, lifecycle transitions) only scan the matching partitions, and closed months can be moved to
+-- reservations_archive with archive_reservation_partition(). Listings are served from reservation_view
+-- and are unaffected by where a reservation row lives.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM reservations WHERE date IS NULL) THEN
+        RAISE EXCEPTION 'reservations without a date cannot be partitioned; fix or remove them first';
+    END IF;
+END $$;
+
+-- Foreign keys into a partitioned table would need the partition key, and archived rows leave the
+-- table anyway; reviews keep reservation_id as a plain column
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS tbl, conname FROM pg_constraint
+              WHERE contype = 'f' AND confrelid = 'reservations'::regclass LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+
+-- rid stays unique in practice (UUIDs), but a partitioned primary key has to include the partition key
+CREATE TABLE reservations (
+    LIKE reservations_unpartitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    CONSTRAINT pk_reservations PRIMARY KEY (rid, date)
+) PARTITION BY RANGE (date);
+
+-- Catches dates outside the monthly partitions created so far
+CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+
+-- Creates the monthly partitions reservations_pYYYY_MM for `months` months from first_month, moving any
+-- rows the default partition already holds for a month into its new partition. Returns how many were created.
+CREATE OR REPLACE FUNCTION ensure_reservation_partitions(first_month DATE, months INT) RETURNS INT
+LANGUAGE plpgsql AS $$
+DECLARE
+    m       DATE := date_trunc('month', first_month)::date;
+    next_m  DATE;
+    part    TEXT;
+    created INT := 0;
+BEGIN
+    FOR i IN 1 .. months LOOP
+        next_m := (m + INTERVAL '1 month')::date;
+        part := 'reservations_p' || to_char(m, 'YYYY_MM');
+        IF to_regclass(part) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE reservations INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+            EXECUTE format('WITH moved AS (DELETE FROM reservations_default WHERE date >= %L AND date < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved', m, next_m, part);
+            EXECUTE format('ALTER TABLE reservations ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', part, m, next_m);
+            created := created + 1;
+        END IF;
+        m := next_m;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- Partitions for the existing data and a year ahead
+SELECT ensure_reservation_partitions(first_month,
+        ((EXTRACT(YEAR FROM last_month) - EXTRACT(YEAR FROM first_month)) * 12
+            + EXTRACT(MONTH FROM last_month) - EXTRACT(MONTH FROM first_month))::int + 1)
+FROM (SELECT date_trunc('month', LEAST(COALESCE(MIN(date), CURRENT_DATE), CURRENT_DATE))::date AS first_month,
+             date_trunc('month', CURRENT_DATE + INTERVAL '12 months')::date AS last_month
+      FROM reservations_unpartitioned) bounds;
+
+INSERT INTO reservations SELECT * FROM reservations_unpartitioned;
+
+DROP TABLE reservations_unpartitioned;
+
+-- Indexes are declared on the parent and created on every partition, including ones attached later
+CREATE INDEX IF NOT EXISTS idx_reservations_cleaner_date_status ON reservations (cleaner, date, status);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_reservations_active_slot
+    ON reservations (cleaner, date, time)
+    WHERE status IS DISTINCT FROM 'CANCELLED';
+
+CREATE INDEX IF NOT EXISTS idx_reservations_open_by_start ON reservations (date, time)
+    WHERE status IN ('PENDING', 'CONFIRMED', 'ONGOING');
+
+-- Cold storage for closed months, partitioned the same way
+CREATE TABLE IF NOT EXISTS reservations_archive (
+    LIKE reservations INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    CONSTRAINT pk_reservations_archive PRIMARY KEY (rid, date)
+) PARTITION BY RANGE (date);
+
+-- Moves the month's partition from reservations to reservations_archive. Months that still hold open
+-- reservations stay put, so the lifecycle job can finish them first. Returns whether the month moved.
+CREATE OR REPLACE FUNCTION archive_reservation_partition(target_month DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    m          DATE := date_trunc('month', target_month)::date;
+    part       TEXT := 'reservations_p' || to_char(m, 'YYYY_MM');
+    still_open BOOLEAN;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                   WHERE inhrelid = to_regclass(part) AND inhparent = 'reservations'::regclass) THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status IN (''PENDING'', ''CONFIRMED'', ''ONGOING''))', part)
+        INTO still_open;
+    IF still_open THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('ALTER TABLE reservations DETACH PARTITION %I', part);
+    EXECUTE format('ALTER TABLE reservations_archive ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   part, m, (m + INTERVAL '1 month')::date);
+    RETURN TRUE;
+END $$;
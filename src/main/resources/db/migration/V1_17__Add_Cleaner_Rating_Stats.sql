@@ -0,0 +1,20 @@
+-- Per-cleaner review count, rating sum and star histogram, kept current by the application's upserts
+CREATE TABLE IF NOT EXISTS cleaner_rating_stats (
+    cleaner_id   UUID   PRIMARY KEY,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum   BIGINT NOT NULL DEFAULT 0,
+    stars_1      BIGINT NOT NULL DEFAULT 0,
+    stars_2      BIGINT NOT NULL DEFAULT 0,
+    stars_3      BIGINT NOT NULL DEFAULT 0,
+    stars_4      BIGINT NOT NULL DEFAULT 0,
+    stars_5      BIGINT NOT NULL DEFAULT 0
+);
+
+-- Backfill from the existing reviews
+INSERT INTO cleaner_rating_stats (cleaner_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5)
+SELECT cleaner_id, COUNT(*), SUM(rating),
+       COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), COUNT(*) FILTER (WHERE rating = 3),
+       COUNT(*) FILTER (WHERE rating = 4), COUNT(*) FILTER (WHERE rating = 5)
+FROM reviews
+GROUP BY cleaner_id
+ON CONFLICT (cleaner_id) DO NOTHING;
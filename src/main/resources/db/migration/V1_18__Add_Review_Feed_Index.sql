@@ -0,0 +1,2 @@
+-- Keyset pages of a cleaner's reviews, newest first (/review/cleaner/{cleanerId}/page)
+CREATE INDEX IF NOT EXISTS idx_reviews_cleaner_feed ON reviews (cleaner_id, date DESC, id);
@@ -0,0 +1,2 @@
+-- Rate range filters on /cleaners/filter and the rate-ordered keyset listing (hourly_rate, uid)
+CREATE INDEX IF NOT EXISTS idx_cleaner_details_hourly_rate ON cleaner_details (hourly_rate, cleaner_id);
@@ -0,0 +1,26 @@
+-- Replace the JSON availability column with one typed row per weekly working window
+CREATE TABLE IF NOT EXISTS cleaner_availability (
+    cleaner_details_id UUID NOT NULL REFERENCES cleaner_details (id) ON DELETE CASCADE,
+    day_of_week VARCHAR(16) NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cleaner_availability_day ON cleaner_availability (day_of_week, cleaner_details_id);
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'cleaner_details' AND column_name = 'availability') THEN
+        INSERT INTO cleaner_availability (cleaner_details_id, day_of_week, start_time, end_time)
+        SELECT cd.id, upper(trim(slot.key)), (slot.value ->> 'from')::time, (slot.value ->> 'to')::time
+        FROM cleaner_details cd
+        CROSS JOIN LATERAL json_array_elements(cd.availability::json) AS entry
+        CROSS JOIN LATERAL json_each(entry) AS slot
+        WHERE cd.availability IS NOT NULL
+          AND cd.availability <> 'null'
+          AND upper(trim(slot.key)) IN ('MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY', 'SUNDAY');
+
+        ALTER TABLE cleaner_details DROP COLUMN availability;
+    END IF;
+END $$;
@@ -0,0 +1,2 @@
+-- Booked-time lookups for one cleaner over a date range (/reservation/booked-times/{cleanerId}/range)
+CREATE INDEX IF NOT EXISTS idx_reservations_cleaner_date_status ON reservations (cleaner, date, status);
@@ -0,0 +1,25 @@
+-- At most one active (non-cancelled) reservation per cleaner and start time.
+-- Existing duplicates would block the index. They are real bookings, so rather than cancel any of
+-- them silently the migration stops and lists them; resolve them with the customers and rerun.
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(format('cleaner %s on %s at %s: %s', cleaner, date, time, rids), E'\n')
+    INTO conflicts
+    FROM (
+        SELECT cleaner, date, time, string_agg(rid::text, ', ' ORDER BY rid) AS rids
+        FROM reservations
+        WHERE status IS DISTINCT FROM 'CANCELLED'
+        GROUP BY cleaner, date, time
+        HAVING COUNT(*) > 1
+    ) duplicates;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'active reservations share a cleaner slot; cancel or move all but one per slot first:%', E'\n' || conflicts;
+    END IF;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_reservations_active_slot
+    ON reservations (cleaner, date, time)
+    WHERE status IS DISTINCT FROM 'CANCELLED';
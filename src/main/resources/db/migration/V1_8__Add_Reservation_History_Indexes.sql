@@ -0,0 +1,4 @@
+-- Keyset pages of a client's or cleaner's reservation history, newest first
+-- (/reservation/page, /cleaners/{id}/reservations/page); read backwards, newest first
+CREATE INDEX IF NOT EXISTS idx_reservations_user_history ON reservations (user_id, date, time, rid);
+CREATE INDEX IF NOT EXISTS idx_reservations_cleaner_history ON reservations (cleaner, date, time, rid);
@@ -0,0 +1,17 @@
+-- Reservation changes written in the same transaction as the change and drained by OutboxDispatcher
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             UUID PRIMARY KEY,
+    type           VARCHAR(32)  NOT NULL,
+    reservation_id UUID         NOT NULL,
+    client_id      UUID,
+    cleaner_id     UUID,
+    date           DATE,
+    time           TIME,
+    status         VARCHAR(32),
+    created_at     TIMESTAMP    NOT NULL,
+    available_at   TIMESTAMP    NOT NULL,
+    attempts       INTEGER      NOT NULL DEFAULT 0,
+    last_error     VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_available_at ON outbox_events (available_at);
@@ -0,0 +1,109 @@
+package com.cleanme;
+
+import com.cleanme.dto.FavouriteDto;
+import com.cleanme.dto.ReservationDto;
+import com.cleanme.entity.ReservationEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.UserType;
+import com.cleanme.repository.CleanerRepository;
+import com.cleanme.repository.FavouriteRepository;
+import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.UsersRepository;
+import com.cleanme.service.CleanerService;
+import com.cleanme.service.FavouriteService;
+import com.cleanme.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares the entity-loading read paths with the projection queries that replaced them, against the
+ * configured database. Run with {@code mvn test -Dtest=ReadPathBenchmarkTests -Dcleanme.benchmark=true};
+ * each pair prints mean latency and bytes allocated by the calling thread per call.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "cleanme.benchmark", matches = "true")
+class ReadPathBenchmarkTests {
+
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private UsersRepository usersRepository;
+    @Autowired
+    private CleanerRepository cleanerRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private FavouriteRepository favouriteRepository;
+    @Autowired
+    private CleanerService cleanerService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private FavouriteService favouriteService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        UUID clientId = reservationRepository.findAll(PageRequest.of(0, 1)).stream()
+                .map(reservation -> reservation.getUser().getUid())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Benchmark needs at least one reservation in the database"));
+
+        // each "before" runs in its own transaction, like the request that used to serve it
+        run("getAllCleaners (entities)", () -> inTransaction(() -> usersRepository.findByUserType(UserType.CLEANER).stream()
+                .map(user -> cleanerRepository.findByCleaner_Uid(user.getUid()).map(details -> details.getAvailability()))
+                .toList()));
+        run("getAllCleaners (projection)", () -> cleanerService.getAllCleaners());
+
+        run("getReservations (entities)", () -> inTransaction(() -> reservationRepository.findByUser_Uid(clientId).stream()
+                .map(ReadPathBenchmarkTests::toDto)
+                .toList()));
+        run("getReservations (projection)", () -> reservationService.getReservations(clientId));
+
+        run("getFavourites (entities)", () -> inTransaction(() -> favouriteRepository.findByClient_Uid(clientId).stream()
+                .map(favourite -> new FavouriteDto(favourite.getCleaner().getUid(),
+                        favourite.getCleaner().getFirstName() + " " + favourite.getCleaner().getLastName()))
+                .toList()));
+        run("getFavourites (projection)", () -> favouriteService.getFavourites(clientId));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private static void run(String name, Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-32s %10.1f us/call %12d bytes/call%n", name, elapsed / 1_000.0 / ITERATIONS, bytes / ITERATIONS);
+    }
+
+    private static ReservationDto toDto(ReservationEntity reservation) {
+        UsersEntity cleaner = reservation.getCleaner();
+        UsersEntity user = reservation.getUser();
+        return new ReservationDto(reservation.getRid(), reservation.getDate(), reservation.getTime(),
+                reservation.getLocation(), reservation.getStatus(), reservation.getComment(),
+                cleaner != null ? cleaner.getFirstName() + " " + cleaner.getLastName() : null,
+                user != null ? user.getFirstName() + " " + user.getLastName() : null,
+                user != null ? user.getPhone() : null);
+    }
+}
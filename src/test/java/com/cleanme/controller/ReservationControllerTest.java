@@ -0,0 +1,62 @@
+package com.cleanme.controller;
+
+import com.cleanme.dto.CreateRecurringReservationDto;
+import com.cleanme.enums.RecurrenceFrequency;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.service.ReservationService;
+import com.cleanme.utilities.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationControllerTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @InjectMocks
+    private ReservationController reservationController;
+
+    private final UUID clientId = UUID.randomUUID();
+    private final CreateRecurringReservationDto series = new CreateRecurringReservationDto(UUID.randomUUID(),
+            LocalDate.of(2030, 1, 7), LocalTime.of(9, 0), "Address 1", null, RecurrenceFrequency.WEEKLY, 4);
+
+    @BeforeEach
+    void setUp() {
+        when(securityUtils.extractUserId(null)).thenReturn(clientId);
+    }
+
+    @Test
+    void createRecurringReservations_answersBadRequestForAnInvalidSeries() {
+        when(reservationService.createRecurringReservations(clientId, series))
+                .thenThrow(new BusinessLogicException("A series needs a frequency and 1 to 52 occurrences"));
+
+        assertThat(reservationController.createRecurringReservations(series, null).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void createRecurringReservations_answersConflictWhenADateIsTaken() {
+        when(reservationService.createRecurringReservations(clientId, series))
+                .thenThrow(new ConflictException("Cleaner is already booked"));
+
+        assertThat(reservationController.createRecurringReservations(series, null).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+}
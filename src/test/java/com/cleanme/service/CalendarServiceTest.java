@@ -0,0 +1,117 @@
+package com.cleanme.service;
+
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.repository.ReservationViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarServiceTest {
+
+    @Mock
+    private ReservationViewRepository reservationViewRepository;
+
+    private CalendarService calendarService;
+
+    private final UUID cleanerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        calendarService = new CalendarService(reservationViewRepository, 90, 365);
+    }
+
+    @Test
+    void writeCleanerFeed_streamsOneEventPerReservationAndClosesTheCursor() throws Exception {
+        UUID rid = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(reservationViewRepository.streamCleanerCalendar(eq(cleanerId), any()))
+                .thenReturn(Stream.of(
+                        row(rid, "2025-06-03", "09:00", ReservationStatus.CONFIRMED, "Titova 5, Sarajevo", "Ring twice; bring a ladder"),
+                        row(UUID.randomUUID(), "2025-06-04", "14:30", ReservationStatus.PENDING, null, null))
+                        .onClose(() -> closed.set(true)));
+        StringWriter out = new StringWriter();
+
+        calendarService.writeCleanerFeed(cleanerId, out);
+
+        String ics = out.toString();
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics.split("BEGIN:VEVENT", -1)).hasSize(3);
+        assertThat(ics).contains("UID:" + rid + "@cleanme\r\n",
+                "DTSTART:20250603T090000\r\n",
+                "DTEND:20250603T103000\r\n",
+                "STATUS:CONFIRMED\r\n",
+                "STATUS:TENTATIVE\r\n",
+                "SUMMARY:Cleaning for Amar Hadžić\r\n",
+                "LOCATION:Titova 5\\, Sarajevo\r\n",
+                "DESCRIPTION:Ring twice\\; bring a ladder\r\n");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void writeCleanerFeed_foldsLongLines() throws Exception {
+        String comment = "x".repeat(200);
+        when(reservationViewRepository.streamCleanerCalendar(eq(cleanerId), any()))
+                .thenReturn(Stream.of(row(UUID.randomUUID(), "2025-06-03", "09:00", ReservationStatus.CONFIRMED, null, comment)));
+        StringWriter out = new StringWriter();
+
+        calendarService.writeCleanerFeed(cleanerId, out);
+
+        for (String line : out.toString().split("\r\n")) {
+            assertThat(line.length()).isLessThanOrEqualTo(75);
+        }
+        assertThat(out.toString().replace("\r\n ", "")).contains("DESCRIPTION:" + comment + "\r\n");
+    }
+
+    @Test
+    void getCleanerFeedVersion_changesWithTheRowCountAndLastWrite() {
+        LocalDateTime written = LocalDateTime.of(2025, 6, 1, 12, 0);
+        when(reservationViewRepository.findCleanerCalendarVersion(eq(cleanerId), any()))
+                .thenReturn(version(3, written), version(2, written), version(0, null));
+
+        CalendarService.FeedVersion three = calendarService.getCleanerFeedVersion(cleanerId);
+        CalendarService.FeedVersion afterDelete = calendarService.getCleanerFeedVersion(cleanerId);
+        CalendarService.FeedVersion empty = calendarService.getCleanerFeedVersion(cleanerId);
+
+        assertThat(afterDelete.etag()).isNotEqualTo(three.etag());
+        assertThat(afterDelete.lastModified()).isEqualTo(three.lastModified()).isPositive();
+        assertThat(empty.lastModified()).isEqualTo(-1);
+    }
+
+    private static ReservationViewRepository.CalendarRow row(UUID rid, String date, String time, ReservationStatus status,
+                                                             String location, String comment) {
+        return new ReservationViewRepository.CalendarRow() {
+            public UUID getRid() { return rid; }
+            public LocalDate getDate() { return LocalDate.parse(date); }
+            public LocalTime getTime() { return LocalTime.parse(time); }
+            public String getLocation() { return location; }
+            public ReservationStatus getStatus() { return status; }
+            public String getComment() { return comment; }
+            public String getCleanerName() { return "Ena Kovač"; }
+            public String getClientName() { return "Amar Hadžić"; }
+            public LocalDateTime getUpdatedAt() { return LocalDateTime.of(2025, 5, 30, 8, 0); }
+        };
+    }
+
+    private static ReservationViewRepository.CalendarVersion version(long count, LocalDateTime lastModified) {
+        return new ReservationViewRepository.CalendarVersion() {
+            public long getCount() { return count; }
+            public LocalDateTime getLastModified() { return lastModified; }
+        };
+    }
+}
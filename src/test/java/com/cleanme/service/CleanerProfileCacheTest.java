@@ -0,0 +1,104 @@
+package com.cleanme.service;
+
+import com.cleanme.configuration.CacheConfig;
+import com.cleanme.dto.CleanerDetailsDto;
+import com.cleanme.dto.CleanerUpdateRequest;
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.UserType;
+import com.cleanme.repository.CleanerRatingStatsRepository;
+import com.cleanme.repository.CleanerRepository;
+import com.cleanme.repository.ReservationViewRepository;
+import com.cleanme.repository.UsersRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, CleanerService.class})
+class CleanerProfileCacheTest {
+
+    @MockitoBean
+    private CleanerRepository cleanerRepository;
+
+    @MockitoBean
+    private UsersRepository usersRepository;
+
+    @MockitoBean
+    private ReservationViewRepository reservationViewRepository;
+
+    @MockitoBean
+    private CleanerSearchIndex searchIndex;
+
+    @MockitoBean
+    private CleanerTextIndex textIndex;
+
+    @MockitoBean
+    private CleanerScores scores;
+
+    @MockitoBean
+    private SlotEngine slotEngine;
+
+    @MockitoBean
+    private CleanerRatingStatsRepository cleanerRatingStatsRepository;
+
+    @Autowired
+    private CleanerService cleanerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final UUID cleanerId = UUID.randomUUID();
+    private CleanerDetailsEntity details;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CLEANER_PROFILES).clear();
+
+        UsersEntity cleaner = new UsersEntity();
+        cleaner.setUid(cleanerId);
+        cleaner.setFirstName("Ana");
+        cleaner.setLastName("Test");
+        cleaner.setUserType(UserType.CLEANER);
+
+        details = new CleanerDetailsEntity();
+        details.setCleaner(cleaner);
+        details.setHourlyRate(BigDecimal.valueOf(20));
+
+        when(usersRepository.findById(cleanerId)).thenReturn(Optional.of(cleaner));
+        when(cleanerRepository.findByCleaner_Uid(cleanerId)).thenReturn(Optional.of(details));
+    }
+
+    @Test
+    void getCleanerById_servesRepeatedReadsFromTheCache() {
+        cleanerService.getCleanerById(cleanerId);
+        CleanerDetailsDto second = cleanerService.getCleanerById(cleanerId);
+
+        assertThat(second.getHourlyRate()).isEqualByComparingTo("20");
+        verify(usersRepository, times(1)).findById(cleanerId);
+        verify(cleanerRepository, times(1)).findByCleaner_Uid(cleanerId);
+    }
+
+    @Test
+    void updateCleanerDetails_evictsOnlyThatProfile() {
+        UUID otherId = UUID.randomUUID();
+        cacheManager.getCache(CacheConfig.CLEANER_PROFILES).put(otherId, new CleanerDetailsDto());
+        cleanerService.getCleanerById(cleanerId);
+
+        CleanerUpdateRequest request = new CleanerUpdateRequest();
+        request.setHourlyRate(BigDecimal.valueOf(35));
+        cleanerService.updateCleanerDetails(cleanerId, request);
+
+        assertThat(cleanerService.getCleanerById(cleanerId).getHourlyRate()).isEqualByComparingTo("35");
+        assertThat(cacheManager.getCache(CacheConfig.CLEANER_PROFILES).get(otherId)).isNotNull();
+    }
+}
@@ -0,0 +1,88 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.CleanerRatingStatsEntity;
+import com.cleanme.repository.CleanerRatingStatsRepository;
+import com.cleanme.repository.FavouriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanerScoresTest {
+
+    @Mock
+    private CleanerRatingStatsRepository cleanerRatingStatsRepository;
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    private CleanerScores scores;
+
+    private final UUID cleanerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        scores = new CleanerScores(cleanerRatingStatsRepository, favouriteRepository);
+    }
+
+    @Test
+    void get_combinesReviewAndFavouriteTotals() {
+        when(cleanerRatingStatsRepository.findAll()).thenReturn(List.of(reviewTotals(cleanerId, 2, 9)));
+        when(favouriteRepository.countByCleaner()).thenReturn(List.of(favouriteCount(cleanerId, 3)));
+
+        CleanerScores.Score score = scores.get(cleanerId);
+
+        assertThat(score).isEqualTo(new CleanerScores.Score(2, 9, 3));
+        assertThat(score.averageRating()).isEqualTo(4.5);
+        assertThat(scores.get(UUID.randomUUID())).isEqualTo(CleanerScores.Score.NONE);
+    }
+
+    @Test
+    void writes_updateLoadedTotalsWithoutQuerying() {
+        when(cleanerRatingStatsRepository.findAll()).thenReturn(List.of());
+        when(favouriteRepository.countByCleaner()).thenReturn(List.of());
+        scores.get(cleanerId);
+
+        scores.recordReview(cleanerId, 4);
+        scores.recordReview(cleanerId, 2);
+        scores.replaceRating(cleanerId, 2, 5);
+        scores.recordFavourite(cleanerId, 1);
+        scores.recordFavourite(cleanerId, -1);
+        scores.recordFavourite(cleanerId, -1);
+
+        assertThat(scores.get(cleanerId)).isEqualTo(new CleanerScores.Score(2, 9, 0));
+        verify(cleanerRatingStatsRepository, times(1)).findAll();
+    }
+
+    @Test
+    void popularity_prefersMoreReviewsAtTheSameAverage() {
+        CleanerScores.Score few = new CleanerScores.Score(1, 5, 0);
+        CleanerScores.Score many = new CleanerScores.Score(40, 200, 0);
+
+        assertThat(many.popularity()).isGreaterThan(few.popularity());
+        assertThat(many.popularity()).isLessThanOrEqualTo(1.0);
+    }
+
+    private static CleanerRatingStatsEntity reviewTotals(UUID cleanerId, long count, long sum) {
+        CleanerRatingStatsEntity totals = new CleanerRatingStatsEntity();
+        totals.setCleanerId(cleanerId);
+        totals.setReviewCount(count);
+        totals.setRatingSum(sum);
+        return totals;
+    }
+
+    private static FavouriteRepository.CleanerFavouriteCount favouriteCount(UUID cleanerId, long count) {
+        return new FavouriteRepository.CleanerFavouriteCount() {
+            public UUID getCleanerId() { return cleanerId; }
+            public Long getFavouriteCount() { return count; }
+        };
+    }
+}
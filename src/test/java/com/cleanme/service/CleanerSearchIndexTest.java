@@ -0,0 +1,213 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CleanerDetailsDto;
+import com.cleanme.dto.FilterDto;
+import com.cleanme.dto.auth.CleanerSetupRequest;
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.CleanerSort;
+import com.cleanme.enums.UserType;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanerSearchIndexTest {
+
+    @Mock
+    private CleanerRepository cleanerRepository;
+
+    @Mock
+    private CleanerScores scores;
+
+    private CleanerSearchIndex index;
+
+    private CleanerDetailsEntity cheapMonday, midFriday, expensiveMonday;
+
+    @BeforeEach
+    void setUp() {
+        index = new CleanerSearchIndex(cleanerRepository, scores);
+
+        cheapMonday = details("Ana", "15.00", "Monday");
+        midFriday = details("Ben", "22.50", "Friday");
+        expensiveMonday = details("Cid", "40", "monday");
+    }
+
+    @Test
+    void search_returnsEveryCleanerOrderedByRateWithoutFilter() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(expensiveMonday, cheapMonday, midFriday));
+
+        List<CleanerDetailsDto> result = index.search(new FilterDto());
+
+        assertThat(result).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ana", "Ben", "Cid");
+    }
+
+    @Test
+    void search_appliesASingleRateBound() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+
+        FilterDto minOnly = new FilterDto();
+        minOnly.setMinRate(new BigDecimal("22.50"));
+        FilterDto maxOnly = new FilterDto();
+        maxOnly.setMaxRate(new BigDecimal("22.49"));
+
+        assertThat(index.search(minOnly)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ben", "Cid");
+        assertThat(index.search(maxOnly)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ana");
+    }
+
+    @Test
+    void search_matchesDayCaseInsensitively() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+
+        FilterDto filter = new FilterDto();
+        filter.setAvailability("MONDAY");
+        filter.setMaxRate(BigDecimal.valueOf(30));
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ana");
+    }
+
+    @Test
+    void search_returnsEmptyForUnknownDay() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday));
+
+        FilterDto filter = new FilterDto();
+        filter.setAvailability("Someday");
+
+        assertThat(index.search(filter)).isEmpty();
+    }
+
+    @Test
+    void search_matchesCleanersWhoseSlotContainsTheWindow() {
+        CleanerDetailsEntity afternoon = details("Dee", "30", "Monday");
+        CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
+        range.setFrom("13:00");
+        range.setTo("20:00");
+        afternoon.setAvailability(List.of(Map.of("Monday", range)));
+
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, afternoon));
+
+        FilterDto filter = new FilterDto();
+        filter.setAvailability("Monday");
+        filter.setFrom("16:00");
+        filter.setTo("18:00");
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Dee");
+
+        filter.setAvailability(null);
+        filter.setFrom("10:00");
+        filter.setTo("12:00");
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ana", "Ben");
+    }
+
+    @Test
+    void search_rejectsHalfOpenWindow() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday));
+
+        FilterDto filter = new FilterDto();
+        filter.setFrom("10:00");
+
+        assertThatThrownBy(() -> index.search(filter)).isInstanceOf(BusinessLogicException.class);
+    }
+
+    @Test
+    void search_pagesCleanersByAverageRating() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+        when(scores.get(cheapMonday.getCleaner().getUid())).thenReturn(new CleanerScores.Score(2, 6, 0));
+        when(scores.get(midFriday.getCleaner().getUid())).thenReturn(new CleanerScores.Score(4, 20, 0));
+        when(scores.get(expensiveMonday.getCleaner().getUid())).thenReturn(new CleanerScores.Score(1, 4, 0));
+
+        FilterDto filter = new FilterDto();
+        filter.setSort(CleanerSort.RATING_DESC);
+        filter.setSize(2);
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ben", "Cid");
+
+        filter.setPage(1);
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ana");
+    }
+
+    @Test
+    void search_ranksPopularityByReviewsAndFavourites() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+        // same average rating, but Cid has far more reviews and favourites; Ben does not work Mondays
+        when(scores.get(cheapMonday.getCleaner().getUid())).thenReturn(new CleanerScores.Score(1, 5, 0));
+        when(scores.get(expensiveMonday.getCleaner().getUid())).thenReturn(new CleanerScores.Score(30, 150, 12));
+
+        FilterDto filter = new FilterDto();
+        filter.setSort(CleanerSort.POPULARITY);
+        filter.setAvailability("Monday");
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Cid", "Ana");
+    }
+
+    @Test
+    void search_pagesByPriceWithoutLookingUpScores() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+
+        FilterDto filter = new FilterDto();
+        filter.setSort(CleanerSort.PRICE_ASC);
+        filter.setSize(1);
+        filter.setPage(1);
+
+        assertThat(index.search(filter)).extracting(CleanerDetailsDto::getFirstName).containsExactly("Ben");
+        verifyNoInteractions(scores);
+    }
+
+    @Test
+    void upsert_movesCleanerToItsNewRatePosition() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(cheapMonday, midFriday, expensiveMonday));
+        index.search(new FilterDto());
+
+        cheapMonday.setHourlyRate(BigDecimal.valueOf(50));
+        index.upsert(cheapMonday);
+
+        assertThat(index.search(new FilterDto())).extracting(CleanerDetailsDto::getFirstName)
+                .containsExactly("Ben", "Cid", "Ana");
+        verify(cleanerRepository, times(1)).findAllCleanersWithDetails();
+    }
+
+    @Test
+    void updateProfile_replacesNameButKeepsDetails() {
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(midFriday));
+        index.search(new FilterDto());
+
+        UsersEntity renamed = midFriday.getCleaner();
+        renamed.setFirstName("Benjamin");
+        index.updateProfile(renamed);
+
+        CleanerDetailsDto dto = index.find(renamed.getUid()).orElseThrow();
+        assertThat(dto.getFirstName()).isEqualTo("Benjamin");
+        assertThat(dto.getHourlyRate()).isEqualByComparingTo("22.50");
+    }
+
+    private static CleanerDetailsEntity details(String name, String rate, String day) {
+        UsersEntity user = new UsersEntity();
+        user.setUid(UUID.randomUUID());
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setUserType(UserType.CLEANER);
+
+        CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
+        range.setFrom("09:00");
+        range.setTo("17:00");
+
+        CleanerDetailsEntity details = new CleanerDetailsEntity();
+        details.setCleaner(user);
+        details.setHourlyRate(new BigDecimal(rate));
+        details.setAvailability(List.of(Map.of(day, range)));
+        details.setBio(List.of("Bio"));
+        return details;
+    }
+}
@@ -1,25 +1,32 @@
 package com.cleanme.service;
 
+import com.cleanme.dto.CleanerDetailsDto;
 import com.cleanme.dto.CleanerUpdateRequest;
 import com.cleanme.dto.FilterDto;
 import com.cleanme.dto.ReservationDto;
 import com.cleanme.dto.auth.CleanerSetupRequest;
 import com.cleanme.entity.CleanerDetailsEntity;
-import com.cleanme.entity.ReservationEntity;
+import com.cleanme.entity.CleanerRatingStatsEntity;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.CleanerListSort;
 import com.cleanme.enums.ReservationStatus;
 import com.cleanme.enums.UserType;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRatingStatsRepository;
 import com.cleanme.repository.CleanerRepository;
-import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.UsersRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -37,9 +44,19 @@ class CleanerServiceTest {
     private UsersRepository usersRepository;
 
     @Mock
-    private ReservationRepository reservationRepository;
+    private ReservationViewRepository reservationViewRepository;
+
+    @Mock
+    private CleanerScores cleanerScores;
+
+    @Mock
+    private SlotEngine slotEngine;
+
+    @Mock
+    private CleanerRatingStatsRepository cleanerRatingStatsRepository;
+
+    private CleanerSearchIndex searchIndex;
 
-    @InjectMocks
     private CleanerService cleanerService;
 
     private UUID cleanerId;
@@ -47,6 +64,11 @@ class CleanerServiceTest {
 
     @BeforeEach
     void setUp() {
+        searchIndex = new CleanerSearchIndex(cleanerRepository, cleanerScores);
+        cleanerService = new CleanerService(cleanerRepository, usersRepository, reservationViewRepository, searchIndex,
+                new CleanerTextIndex(cleanerRepository), cleanerScores, slotEngine, cleanerRatingStatsRepository);
+        lenient().when(cleanerScores.get(any())).thenReturn(CleanerScores.Score.NONE);
+
         cleanerId = UUID.randomUUID();
 
         cleanerUser = new UsersEntity();
@@ -80,6 +102,44 @@ class CleanerServiceTest {
     }
 
 
+    @Test
+    void setupCleaner_rejectsRangeEndingBeforeItStarts() {
+        CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
+        range.setFrom("17:00");
+        range.setTo("09:00");
+
+        CleanerSetupRequest request = new CleanerSetupRequest(
+                cleanerId,
+                "Window Cleaning",
+                BigDecimal.valueOf(25),
+                List.of(Map.of("Monday", range)),
+                List.of("Experienced cleaner")
+        );
+
+        when(cleanerRepository.existsByCleaner_Uid(cleanerId)).thenReturn(false);
+        when(usersRepository.findById(cleanerId)).thenReturn(Optional.of(cleanerUser));
+
+        assertThrows(BusinessLogicException.class, () -> cleanerService.setupCleaner(request));
+        verify(cleanerRepository, never()).save(any());
+    }
+
+    @Test
+    void cleanerDetails_storesTypedSlotsAndKeepsApiShape() {
+        CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
+        range.setFrom("9:00");
+        range.setTo("13:30");
+
+        CleanerDetailsEntity details = new CleanerDetailsEntity();
+        details.setAvailability(List.of(Map.of("tuesday", range)));
+
+        assertEquals(DayOfWeek.TUESDAY, details.getAvailabilitySlots().get(0).getDayOfWeek());
+        assertEquals(LocalTime.of(9, 0), details.getAvailabilitySlots().get(0).getStartTime());
+
+        CleanerSetupRequest.TimeRange roundTrip = details.getAvailability().get(0).get("Tuesday");
+        assertEquals("09:00", roundTrip.getFrom());
+        assertEquals("13:30", roundTrip.getTo());
+    }
+
     @Test
     void setupCleaner_throwsWhenCleanerAlreadyExists() {
         CleanerSetupRequest request = new CleanerSetupRequest();
@@ -119,47 +179,36 @@ class CleanerServiceTest {
 
     @Test
     void getAllCleaners_returnsAllCleanersWithDetails() {
-        UsersEntity cleaner1 = new UsersEntity();
-        cleaner1.setUid(UUID.randomUUID());
-        cleaner1.setFirstName("John");
-        cleaner1.setLastName("Smith");
-        cleaner1.setEmail("john@clean.com");
-        cleaner1.setUserType(UserType.CLEANER);
-
-        CleanerDetailsEntity details1 = new CleanerDetailsEntity();
-        details1.setCleaner(cleaner1);
-        details1.setHourlyRate(BigDecimal.valueOf(20));
-
-        CleanerSetupRequest.TimeRange range = new CleanerSetupRequest.TimeRange();
-        range.setFrom("09:00");
-        range.setTo("17:00");
-
-        Map<String, CleanerSetupRequest.TimeRange> availability = Map.of("Monday", range);
-        details1.setAvailability(List.of(availability));
-        details1.setBio(List.of("Bio"));
+        UUID cleanerId = UUID.randomUUID();
+        CleanerDetailsDto profile = new CleanerDetailsDto(cleanerId, "John", "Smith", "john@clean.com",
+                "Cleaning", BigDecimal.valueOf(20), List.of("Bio"));
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner1));
-        when(cleanerRepository.findByCleaner_Uid(cleaner1.getUid())).thenReturn(Optional.of(details1));
+        when(usersRepository.findCleanerProfiles()).thenReturn(List.of(profile));
+        when(cleanerRepository.findAllCleanerSlots()).thenReturn(List.of(
+                slotRow(cleanerId, DayOfWeek.WEDNESDAY, "12:00", "16:00"),
+                slotRow(cleanerId, DayOfWeek.MONDAY, "09:00", "17:00")));
 
         var result = cleanerService.getAllCleaners();
 
         assertEquals(1, result.size());
         assertEquals("John", result.get(0).getFirstName());
         assertEquals(BigDecimal.valueOf(20), result.get(0).getHourlyRate());
+        assertEquals(List.of("Monday", "Wednesday"), result.get(0).getAvailability().stream()
+                .map(day -> day.keySet().iterator().next())
+                .toList());
+        assertEquals("09:00", result.get(0).getAvailability().get(0).get("Monday").getFrom());
+        verify(usersRepository, never()).findByUserType(any());
+        verify(cleanerRepository, never()).findByCleaner_Uid(any());
     }
 
 
     @Test
     void getAllCleaners_handlesCleanersWithoutDetails() {
-        UsersEntity cleaner = new UsersEntity();
-        cleaner.setUid(UUID.randomUUID());
-        cleaner.setFirstName("Alice");
-        cleaner.setLastName("Johnson");
-        cleaner.setEmail("alice@clean.com");
-        cleaner.setUserType(UserType.CLEANER);
+        CleanerDetailsDto profile = new CleanerDetailsDto(UUID.randomUUID(), "Alice", "Johnson", "alice@clean.com",
+                null, null, null);
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.empty());
+        when(usersRepository.findCleanerProfiles()).thenReturn(List.of(profile));
+        when(cleanerRepository.findAllCleanerSlots()).thenReturn(List.of());
 
         var result = cleanerService.getAllCleaners();
 
@@ -169,6 +218,43 @@ class CleanerServiceTest {
         assertNull(result.get(0).getBio());
     }
 
+    @Test
+    void getCleanersPage_returnsCursorWhenMoreRowsExist() {
+        UsersEntity first = pagedCleaner("10.00");
+        UsersEntity second = pagedCleaner("12.00");
+        UsersEntity third = pagedCleaner("15.00");
+
+        when(usersRepository.findCleanersWithDetailsByRateFirstPage(PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second, third));
+
+        var page = cleanerService.getCleanersPage(CleanerListSort.HOURLY_RATE, 2, null);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(second.getUid(), page.getItems().get(1).getId());
+        assertNotNull(page.getNextCursor());
+
+        when(usersRepository.findCleanersWithDetailsByRateAfter(new BigDecimal("12.00"), second.getUid(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(third));
+
+        var next = cleanerService.getCleanersPage(CleanerListSort.HOURLY_RATE, 2, page.getNextCursor());
+
+        assertEquals(1, next.getItems().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getCleanersPage_rejectsCursorFromOtherSort() {
+        UsersEntity first = pagedCleaner("10.00");
+        UsersEntity second = pagedCleaner("12.00");
+
+        when(usersRepository.findCleanersWithDetailsFirstPage(PageRequest.of(0, 2))).thenReturn(List.of(first, second));
+
+        String cursor = cleanerService.getCleanersPage(CleanerListSort.UID, 1, null).getNextCursor();
+
+        assertThrows(BusinessLogicException.class,
+                () -> cleanerService.getCleanersPage(CleanerListSort.HOURLY_RATE, 1, cursor));
+    }
+
     @Test
     void getCleanerById_returnsValidCleanerDetails() {
         UUID id = UUID.randomUUID();
@@ -201,6 +287,54 @@ class CleanerServiceTest {
         assertEquals("Fast and reliable", result.getBio().get(0));
     }
 
+    @Test
+    void getCleanerById_readsRatingsFromTheAggregate() {
+        UUID id = UUID.randomUUID();
+        UsersEntity cleaner = new UsersEntity();
+        cleaner.setUid(id);
+        cleaner.setUserType(UserType.CLEANER);
+        when(usersRepository.findById(id)).thenReturn(Optional.of(cleaner));
+        when(cleanerRepository.findByCleaner_Uid(id)).thenReturn(Optional.empty());
+        when(cleanerRatingStatsRepository.findById(id)).thenReturn(Optional.of(
+                new CleanerRatingStatsEntity(id, 4, 17, 0, 0, 1, 1, 2)));
+
+        var result = cleanerService.getCleanerById(id);
+
+        assertEquals(4.25, result.getAverageRating());
+        assertEquals(4, result.getReviewCount());
+        assertEquals(Map.of(1, 0L, 2, 0L, 3, 1L, 4, 1L, 5, 2L), result.getRatingHistogram());
+    }
+
+    @Test
+    void getCleanerById_hasNoAverageWithoutReviews() {
+        UUID id = UUID.randomUUID();
+        UsersEntity cleaner = new UsersEntity();
+        cleaner.setUid(id);
+        cleaner.setUserType(UserType.CLEANER);
+        when(usersRepository.findById(id)).thenReturn(Optional.of(cleaner));
+        when(cleanerRepository.findByCleaner_Uid(id)).thenReturn(Optional.empty());
+
+        var result = cleanerService.getCleanerById(id);
+
+        assertNull(result.getAverageRating());
+        assertEquals(0, result.getReviewCount());
+    }
+
+    @Test
+    void getAllCleaners_addsRatingsFromTheInMemoryTotals() {
+        UUID id = UUID.randomUUID();
+        when(usersRepository.findCleanerProfiles()).thenReturn(List.of(new CleanerDetailsDto(id, "John", "Smith",
+                "john@clean.com", "Cleaning", BigDecimal.valueOf(20), List.of("Bio"))));
+        when(cleanerRepository.findAllCleanerSlots()).thenReturn(List.of());
+        when(cleanerScores.get(id)).thenReturn(new CleanerScores.Score(3, 13, 0));
+
+        var result = cleanerService.getAllCleaners();
+
+        assertEquals(3, result.get(0).getReviewCount());
+        assertEquals(13 / 3.0, result.get(0).getAverageRating());
+        verifyNoInteractions(cleanerRatingStatsRepository);
+    }
+
     @Test
     void getCleanerById_throwsWhenUserNotFound() {
         UUID id = UUID.randomUUID();
@@ -293,8 +427,8 @@ class CleanerServiceTest {
         filter.setMinRate(BigDecimal.valueOf(15));
         filter.setMaxRate(BigDecimal.valueOf(25));
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.of(details));
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(details));
+        searchIndex.warmUp();
 
         var result = cleanerService.filterCleaners(filter);
 
@@ -321,8 +455,8 @@ class CleanerServiceTest {
         FilterDto filter = new FilterDto();
         filter.setAvailability("Friday");
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.of(details));
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(details));
+        searchIndex.warmUp();
 
         var result = cleanerService.filterCleaners(filter);
 
@@ -350,8 +484,8 @@ class CleanerServiceTest {
         filter.setMaxRate(BigDecimal.valueOf(25));
         filter.setAvailability("Saturday");
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.of(details));
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(details));
+        searchIndex.warmUp();
 
         var result = cleanerService.filterCleaners(filter);
 
@@ -360,12 +494,9 @@ class CleanerServiceTest {
 
     @Test
     void filterCleaners_skipsCleanersWithNoDetails() {
-        UsersEntity cleaner = new UsersEntity();
-        cleaner.setUid(UUID.randomUUID());
-        cleaner.setUserType(UserType.CLEANER);
-
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.empty());
+        // the index is loaded with an inner join, so cleaners without details never reach it
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of());
+        searchIndex.warmUp();
 
         var result = cleanerService.filterCleaners(new FilterDto());
 
@@ -388,8 +519,8 @@ class CleanerServiceTest {
         filter.setMaxRate(BigDecimal.valueOf(20));
         filter.setAvailability("Sunday");
 
-        when(usersRepository.findByUserType(UserType.CLEANER)).thenReturn(List.of(cleaner));
-        when(cleanerRepository.findByCleaner_Uid(cleaner.getUid())).thenReturn(Optional.of(details));
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(details));
+        searchIndex.warmUp();
 
         var result = cleanerService.filterCleaners(filter);
 
@@ -397,24 +528,36 @@ class CleanerServiceTest {
     }
 
     @Test
-    void getCleanerReservations_returnsMappedReservations() {
-        UUID cleanerId = UUID.randomUUID();
-
+    @SuppressWarnings("unchecked")
+    void filterCleaners_queriesDatabaseUntilIndexIsReady() {
         UsersEntity cleaner = new UsersEntity();
-        cleaner.setUid(cleanerId);
-        cleaner.setFirstName("Ena");
-        cleaner.setLastName("Kovač");
+        cleaner.setUid(UUID.randomUUID());
+        cleaner.setFirstName("Lana");
+        cleaner.setUserType(UserType.CLEANER);
 
-        ReservationEntity reservation = new ReservationEntity();
-        reservation.setRid(UUID.randomUUID());
-        reservation.setCleaner(cleaner);
-        reservation.setDate(LocalDate.of(2025, 6, 1));
-        reservation.setTime(LocalTime.of(10, 30));
-        reservation.setLocation("Address 1");
-        reservation.setStatus(ReservationStatus.PENDING);
-        reservation.setComment("Please be on time");
+        CleanerDetailsEntity details = new CleanerDetailsEntity();
+        details.setCleaner(cleaner);
+        details.setHourlyRate(BigDecimal.valueOf(18));
+
+        FilterDto filter = new FilterDto();
+        filter.setMinRate(BigDecimal.valueOf(15));
 
-        when(reservationRepository.findByCleaner_Uid(cleanerId)).thenReturn(List.of(reservation));
+        when(cleanerRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of(details));
+
+        var result = cleanerService.filterCleaners(filter);
+
+        assertEquals(1, result.size());
+        assertEquals("Lana", result.get(0).getFirstName());
+        verify(cleanerRepository, never()).findAllCleanersWithDetails();
+    }
+
+    @Test
+    void getCleanerReservations_returnsProjectedReservations() {
+        UUID cleanerId = UUID.randomUUID();
+        ReservationDto reservation = new ReservationDto(UUID.randomUUID(), LocalDate.of(2025, 6, 1), LocalTime.of(10, 30),
+                "Address 1", ReservationStatus.PENDING, "Please be on time", "Ena Kovač", null, null);
+
+        when(reservationViewRepository.findDtosByCleanerId(cleanerId)).thenReturn(List.of(reservation));
 
         var result = cleanerService.getCleanerReservations(cleanerId);
 
@@ -423,17 +566,40 @@ class CleanerServiceTest {
         assertEquals("Ena Kovač", dto.getCleanerName());
         assertEquals("Please be on time", dto.getComment());
         assertEquals(LocalTime.of(10, 30), dto.getTime());
+        verify(reservationViewRepository, only()).findDtosByCleanerId(cleanerId);
     }
 
     @Test
     void getCleanerReservations_returnsEmptyListWhenNoneFound() {
         UUID cleanerId = UUID.randomUUID();
 
-        when(reservationRepository.findByCleaner_Uid(cleanerId)).thenReturn(Collections.emptyList());
+        when(reservationViewRepository.findDtosByCleanerId(cleanerId)).thenReturn(Collections.emptyList());
 
         var result = cleanerService.getCleanerReservations(cleanerId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    private static CleanerRepository.CleanerSlotRow slotRow(UUID cleanerId, DayOfWeek day, String start, String end) {
+        return new CleanerRepository.CleanerSlotRow() {
+            public UUID getCleanerId() { return cleanerId; }
+            public DayOfWeek getDayOfWeek() { return day; }
+            public LocalTime getStartTime() { return LocalTime.parse(start); }
+            public LocalTime getEndTime() { return LocalTime.parse(end); }
+        };
+    }
+
+    private static UsersEntity pagedCleaner(String rate) {
+        UsersEntity user = new UsersEntity();
+        user.setUid(UUID.randomUUID());
+        user.setFirstName("Paged");
+        user.setUserType(UserType.CLEANER);
+
+        CleanerDetailsEntity details = new CleanerDetailsEntity();
+        details.setCleaner(user);
+        details.setHourlyRate(new BigDecimal(rate));
+        user.setCleanerDetails(details);
+        return user;
+    }
 }
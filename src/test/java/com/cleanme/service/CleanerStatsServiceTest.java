@@ -0,0 +1,102 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CleanerMonthlyStatsDto;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerMonthlyStatsRepository;
+import com.cleanme.repository.CleanerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanerStatsServiceTest {
+
+    @Mock
+    private CleanerMonthlyStatsRepository statsRepository;
+
+    @Mock
+    private CleanerRepository cleanerRepository;
+
+    private CleanerStatsService statsService;
+
+    private final UUID cleanerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        statsService = new CleanerStatsService(statsRepository, cleanerRepository, 90);
+    }
+
+    @Test
+    void getMonthlyStats_fillsEveryMonthAndPricesFinishedBookings() {
+        when(statsRepository.findMonthlyCounts(cleanerId, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1)))
+                .thenReturn(List.of(
+                        row("2025-01-01", ReservationStatus.FINISHED, 4),
+                        row("2025-01-01", ReservationStatus.CANCELLED, 1),
+                        row("2025-03-01", ReservationStatus.PENDING, 2)));
+        when(cleanerRepository.findHourlyRateByCleanerUid(cleanerId)).thenReturn(Optional.of(new BigDecimal("20.00")));
+
+        List<CleanerMonthlyStatsDto> stats = statsService.getMonthlyStats(cleanerId, YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        assertThat(stats).extracting(CleanerMonthlyStatsDto::getMonth)
+                .containsExactly(YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3));
+        assertThat(stats.get(0).getReservations())
+                .containsEntry(ReservationStatus.FINISHED, 4L)
+                .containsEntry(ReservationStatus.CANCELLED, 1L);
+        // 4 finished bookings of 90 minutes at 20/hour
+        assertThat(stats.get(0).getEstimatedEarnings()).isEqualByComparingTo("120.00");
+        assertThat(stats.get(1).getReservations()).isEmpty();
+        assertThat(stats.get(1).getEstimatedEarnings()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void getMonthlyStats_rejectsInvertedOrOversizedRanges() {
+        assertThatThrownBy(() -> statsService.getMonthlyStats(cleanerId, YearMonth.of(2025, 3), YearMonth.of(2025, 1)))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> statsService.getMonthlyStats(cleanerId, YearMonth.of(2022, 1),
+                YearMonth.of(2022, 1).plusMonths(CleanerStatsService.MAX_MONTHS)))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void record_mergesChangesPerCounterAndSkipsNoOps() {
+        UUID other = new UUID(0, 1);
+        UUID first = new UUID(0, 0);
+
+        statsService.record(List.of(
+                // a status change within one month
+                CleanerStatsService.Change.removed(other, LocalDate.of(2025, 6, 3), ReservationStatus.PENDING),
+                CleanerStatsService.Change.added(other, LocalDate.of(2025, 6, 3), ReservationStatus.CONFIRMED),
+                // an update that changed nothing the counters see
+                CleanerStatsService.Change.removed(first, LocalDate.of(2025, 6, 10), ReservationStatus.PENDING),
+                CleanerStatsService.Change.added(first, LocalDate.of(2025, 6, 24), ReservationStatus.PENDING),
+                CleanerStatsService.Change.added(first, LocalDate.of(2025, 7, 1), null)));
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).adjust(other, LocalDate.of(2025, 6, 1), "PENDING", -1);
+        order.verify(statsRepository).adjust(other, LocalDate.of(2025, 6, 1), "CONFIRMED", 1);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    private static CleanerMonthlyStatsRepository.MonthlyCountRow row(String month, ReservationStatus status, long count) {
+        return new CleanerMonthlyStatsRepository.MonthlyCountRow() {
+            public LocalDate getMonth() { return LocalDate.parse(month); }
+            public ReservationStatus getStatus() { return status; }
+            public long getReservationCount() { return count; }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.CleanerDetailsEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.UserType;
+import com.cleanme.repository.CleanerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CleanerTextIndexTest {
+
+    @Mock
+    private CleanerRepository cleanerRepository;
+
+    private CleanerTextIndex index;
+
+    private CleanerDetailsEntity windows, deepClean, bosnian;
+
+    @BeforeEach
+    void setUp() {
+        index = new CleanerTextIndex(cleanerRepository);
+
+        windows = details("Window cleaning", "I love clean windows", "Ten years of experience");
+        deepClean = details("Deep cleaning, ironing", "Windows on request");
+        bosnian = details("Čišćenje stanova", "Brzo i pouzdano");
+
+        when(cleanerRepository.findAllCleanersWithDetails()).thenReturn(List.of(windows, deepClean, bosnian));
+    }
+
+    @Test
+    void search_ranksServicesAboveBio() {
+        List<UUID> result = index.search("window", 10);
+
+        assertThat(result).containsExactly(windows.getCleaner().getUid(), deepClean.getCleaner().getUid());
+    }
+
+    @Test
+    void search_requiresEveryTermAndMatchesPrefixes() {
+        assertThat(index.search("iron deep", 10)).containsExactly(deepClean.getCleaner().getUid());
+        assertThat(index.search("iron window", 10)).containsExactly(deepClean.getCleaner().getUid());
+        assertThat(index.search("iron experience", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ignoresCaseAndDiacritics() {
+        assertThat(index.search("CISCENJE", 10)).containsExactly(bosnian.getCleaner().getUid());
+    }
+
+    @Test
+    void upsert_replacesPreviousTerms() {
+        index.search("window", 10);
+
+        windows.setServicesOffered("Carpet care");
+        windows.setBio(List.of("Carpets only"));
+        index.upsert(windows);
+
+        assertThat(index.search("window", 10)).containsExactly(deepClean.getCleaner().getUid());
+        assertThat(index.search("carpet", 10)).containsExactly(windows.getCleaner().getUid());
+        verify(cleanerRepository, times(1)).findAllCleanersWithDetails();
+    }
+
+    @Test
+    void search_respectsLimit() {
+        assertThat(index.search("clean", 1)).hasSize(1);
+    }
+
+    private static CleanerDetailsEntity details(String services, String... bio) {
+        UsersEntity user = new UsersEntity();
+        user.setUid(UUID.randomUUID());
+        user.setUserType(UserType.CLEANER);
+
+        CleanerDetailsEntity details = new CleanerDetailsEntity();
+        details.setCleaner(user);
+        details.setServicesOffered(services);
+        details.setBio(List.of(bio));
+        return details;
+    }
+}
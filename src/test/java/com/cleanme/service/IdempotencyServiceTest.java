@@ -0,0 +1,168 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.ReviewDto;
+import com.cleanme.entity.IdempotencyKeyEntity;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /review/1";
+    private static final String KEY = "retry-me";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    private IdempotencyService idempotencyService;
+    private ReviewDto firstResponse;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = newService();
+    }
+
+    @Test
+    void execute_withoutAKeyJustRunsTheWrite() {
+        ReviewDto review = idempotencyService.execute(userId, SCOPE, null, request(5), ReviewDto.class, () -> write(request(5)));
+
+        assertThat(review.getRating()).isEqualTo(5);
+        assertThat(writes).hasValue(1);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_storesTheFirstResponseAndReplaysItFromMemory() {
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.claim(eq(userId), eq(SCOPE), eq(KEY), anyString(), any(), any())).thenReturn(1);
+
+        ReviewDto first = idempotencyService.execute(userId, SCOPE, KEY, request(5), ReviewDto.class, () -> write(request(5)));
+        ReviewDto retry = idempotencyService.execute(userId, SCOPE, KEY, request(5), ReviewDto.class, () -> write(request(5)));
+
+        assertThat(writes).hasValue(1);
+        assertThat(retry).isEqualTo(first);
+        verify(idempotencyKeyRepository, times(1)).findById(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_replaysAStoredResponseAfterARestart() {
+        IdempotencyKeyEntity stored = storeFirstResponse(request(4));
+        IdempotencyService restarted = newService();
+        when(idempotencyKeyRepository.findById(new IdempotencyKeyEntity.Key(userId, SCOPE, KEY))).thenReturn(Optional.of(stored));
+
+        ReviewDto replayed = restarted.execute(userId, SCOPE, KEY, request(4), ReviewDto.class, () -> write(request(4)));
+
+        assertThat(replayed).isEqualTo(firstResponse);
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void execute_rejectsAKeyReusedForADifferentRequest() {
+        IdempotencyKeyEntity stored = storeFirstResponse(request(4));
+        IdempotencyService restarted = newService();
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> restarted.execute(userId, SCOPE, KEY, request(1), ReviewDto.class, () -> write(request(1))))
+                .isInstanceOf(ConflictException.class);
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void execute_ignoresAnExpiredKey() {
+        IdempotencyKeyEntity stored = storeFirstResponse(request(4));
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        IdempotencyService restarted = newService();
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.of(stored));
+        when(idempotencyKeyRepository.claim(eq(userId), eq(SCOPE), eq(KEY), anyString(), any(), any())).thenReturn(1);
+
+        restarted.execute(userId, SCOPE, KEY, request(4), ReviewDto.class, () -> write(request(4)));
+
+        assertThat(writes).hasValue(2);
+    }
+
+    @Test
+    void execute_rollsBackAndReplaysWhenAConcurrentRequestClaimedTheKey() {
+        IdempotencyKeyEntity winner = storeFirstResponse(request(4));
+        IdempotencyService other = newService();
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.empty(), Optional.of(winner));
+        when(idempotencyKeyRepository.claim(eq(userId), eq(SCOPE), eq(KEY), anyString(), any(), any())).thenReturn(0);
+
+        ReviewDto replayed = other.execute(userId, SCOPE, KEY, request(4), ReviewDto.class, () -> write(request(4)));
+
+        assertThat(replayed).isEqualTo(firstResponse);
+        // the key is claimed before the write, so the second request never runs it
+        assertThat(writes).hasValue(1);
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void execute_answersConflictWhileTheClaimingRequestHasNotFinished() {
+        IdempotencyKeyEntity running = storeFirstResponse(request(4));
+        running.setResponseBody(null);
+        IdempotencyService other = newService();
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.of(running));
+        when(idempotencyKeyRepository.claim(eq(userId), eq(SCOPE), eq(KEY), anyString(), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> other.execute(userId, SCOPE, KEY, request(4), ReviewDto.class, () -> write(request(4))))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("in progress");
+        assertThat(writes).hasValue(1);
+    }
+
+    // Runs one request through a fresh service and returns the row it stored
+    private IdempotencyKeyEntity storeFirstResponse(ReviewDto request) {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        when(idempotencyKeyRepository.findById(any())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.claim(eq(userId), eq(SCOPE), eq(KEY), hash.capture(), any(), any())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(userId), eq(SCOPE), eq(KEY), body.capture())).thenReturn(1);
+        firstResponse = idempotencyService.execute(userId, SCOPE, KEY, request, ReviewDto.class, () -> write(request));
+        reset(idempotencyKeyRepository);
+
+        LocalDateTime now = LocalDateTime.now();
+        return new IdempotencyKeyEntity(userId, SCOPE, KEY, hash.getValue(), body.getValue(), now, now.plusHours(24));
+    }
+
+    private IdempotencyService newService() {
+        return new IdempotencyService(idempotencyKeyRepository, objectMapper, transactionManager, 24, 100);
+    }
+
+    private ReviewDto write(ReviewDto request) {
+        writes.incrementAndGet();
+        return new ReviewDto(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), userId, request.getRating(),
+                request.getComment(), LocalDate.of(2025, 6, 3), "Ena Kovač");
+    }
+
+    private static ReviewDto request(int rating) {
+        ReviewDto request = new ReviewDto();
+        request.setRating(rating);
+        request.setComment("Great job");
+        return request;
+    }
+}
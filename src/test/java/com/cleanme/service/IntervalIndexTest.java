@@ -0,0 +1,69 @@
+package com.cleanme.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IntervalIndexTest {
+
+    @Test
+    void forEachContaining_findsOnlyIntervalsCoveringTheWindow() {
+        IntervalIndex<String> index = IntervalIndex.build(List.of(
+                new IntervalIndex.Interval<>(9 * 60, 17 * 60, "day"),
+                new IntervalIndex.Interval<>(14 * 60, 16 * 60, "short"),
+                new IntervalIndex.Interval<>(15 * 60, 20 * 60, "late"),
+                new IntervalIndex.Interval<>(6 * 60, 12 * 60, "morning")
+        ));
+
+        List<String> found = new ArrayList<>();
+        index.forEachContaining(14 * 60, 17 * 60, found::add);
+
+        assertThat(found).containsExactly("day");
+    }
+
+    @Test
+    void withAndWithout_updateTheIndexIncrementally() {
+        String kept = "kept";
+        String removed = "removed";
+        IntervalIndex<String> index = IntervalIndex.<String>empty()
+                .with(List.of(new IntervalIndex.Interval<>(600, 900, kept)))
+                .with(List.of(new IntervalIndex.Interval<>(500, 1000, removed)));
+
+        IntervalIndex<String> after = index.without(removed);
+
+        List<String> found = new ArrayList<>();
+        after.forEachContaining(700, 800, found::add);
+        assertThat(found).containsExactly(kept);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void forEachContaining_agreesWithLinearScan() {
+        Random random = new Random(42);
+        List<IntervalIndex.Interval<Integer>> intervals = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int start = random.nextInt(1_380);
+            int end = start + 15 + random.nextInt(1_440 - start - 15);
+            intervals.add(new IntervalIndex.Interval<>(start, end, i));
+        }
+        IntervalIndex<Integer> index = IntervalIndex.build(intervals);
+
+        for (int query = 0; query < 200; query++) {
+            int from = random.nextInt(1_400);
+            int to = from + 1 + random.nextInt(1_440 - from - 1);
+
+            Set<Integer> expected = new HashSet<>();
+            for (IntervalIndex.Interval<Integer> interval : intervals) {
+                if (interval.start() <= from && interval.end() >= to) {
+                    expected.add(interval.owner());
+                }
+            }
+            Set<Integer> actual = new HashSet<>();
+            index.forEachContaining(from, to, actual::add);
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cleanme.service;
+
+import com.cleanme.entity.OutboxEventEntity;
+import com.cleanme.enums.ReservationEventType;
+import com.cleanme.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ReservationEventConsumer notifications;
+
+    @Mock
+    private ReservationEventConsumer calendarSync;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxEventRepository, List.of(notifications, calendarSync),
+                transactionManager, BATCH_SIZE, 60, 5);
+    }
+
+    @Test
+    void dispatch_deliversEachEventToEveryConsumerThenDeletesIt() {
+        OutboxEventEntity created = event(ReservationEventType.CREATED);
+        OutboxEventEntity updated = event(ReservationEventType.UPDATED);
+        givenClaimable(created, updated);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(2);
+
+        verify(notifications).onReservationEvent(created);
+        verify(notifications).onReservationEvent(updated);
+        verify(calendarSync).onReservationEvent(created);
+        verify(calendarSync).onReservationEvent(updated);
+        verify(outboxEventRepository).deleteById(created.getId());
+        verify(outboxEventRepository).deleteById(updated.getId());
+        // the claim leases the batch so other dispatchers skip it meanwhile
+        assertThat(created.getAvailableAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+    }
+
+    @Test
+    void dispatch_backsOffAFailingEventAndKeepsDeliveringTheRest() {
+        OutboxEventEntity failing = event(ReservationEventType.CREATED);
+        OutboxEventEntity healthy = event(ReservationEventType.DELETED);
+        givenClaimable(failing, healthy);
+        doThrow(new IllegalStateException("mail server down")).when(notifications).onReservationEvent(failing);
+        when(outboxEventRepository.findById(failing.getId())).thenReturn(Optional.of(failing));
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+
+        verify(outboxEventRepository, never()).deleteById(failing.getId());
+        verify(outboxEventRepository).deleteById(healthy.getId());
+        verify(outboxEventRepository).save(failing);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getLastError()).isEqualTo("mail server down");
+        verify(calendarSync).onReservationEvent(healthy);
+    }
+
+    @Test
+    void dispatch_doesNothingWhenTheOutboxIsEmpty() {
+        givenClaimable();
+
+        assertThat(dispatcher.dispatch()).isZero();
+
+        verifyNoInteractions(notifications, calendarSync);
+    }
+
+    private void givenClaimable(OutboxEventEntity... events) {
+        when(outboxEventRepository.claimAvailable(any(), eq(BATCH_SIZE))).thenReturn(List.of(events));
+        when(outboxEventRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static OutboxEventEntity event(ReservationEventType type) {
+        OutboxEventEntity event = new OutboxEventEntity();
+        event.setId(UUID.randomUUID());
+        event.setType(type);
+        event.setReservationId(UUID.randomUUID());
+        event.setCleanerId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,126 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CreateReservationDto;
+import com.cleanme.entity.ReservationEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.repository.OutboxEventRepository;
+import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
+import com.cleanme.repository.UsersRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Fires thousands of concurrent createReservation calls at a small set of slots against an in-memory
+ * repository that, like a plain check-then-insert, has a gap between the availability check and the
+ * insert. Every slot must end up with exactly one booking and every other request must get a conflict.
+ * <p>
+ * This covers the in-process {@link SlotLocks} only. No transaction is active here, so each lock is
+ * released as soon as the insert returns rather than at commit, and the partial unique index that backs
+ * bookings across instances is not involved.
+ */
+class ReservationBookingStressTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 4_000;
+    private static final int CLEANERS = 8;
+    private static final int TIMES_PER_DAY = 12;
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void concurrentBookingsNeverDoubleBookASlot() throws Exception {
+        Map<String, Integer> activeBookings = new ConcurrentHashMap<>();
+        ReservationRepository reservations = inMemoryReservations(activeBookings);
+
+        UsersRepository users = mock(UsersRepository.class, withSettings().stubOnly());
+        List<UUID> cleanerIds = new ArrayList<>();
+        for (int i = 0; i < CLEANERS; i++) {
+            UsersEntity cleaner = user();
+            cleanerIds.add(cleaner.getUid());
+            when(users.findUsersEntityByUid(cleaner.getUid())).thenReturn(Optional.of(cleaner));
+        }
+        UsersEntity client = user();
+        when(users.findUsersEntityByUid(client.getUid())).thenReturn(Optional.of(client));
+
+        ReservationService service = new ReservationService(reservations, users,
+                mock(SlotEngine.class, withSettings().stubOnly()), new SlotLocks(),
+                mock(OutboxEventRepository.class, withSettings().stubOnly()),
+                mock(ReservationViewRepository.class, withSettings().stubOnly()),
+                mock(CleanerStatsService.class, withSettings().stubOnly()),
+                mock(PlatformTransactionManager.class, withSettings().stubOnly()));
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Set<String> requestedSlots = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                CreateReservationDto dto = new CreateReservationDto(DATE, LocalTime.of(8 + random.nextInt(TIMES_PER_DAY), 0),
+                        "Address 1", ReservationStatus.PENDING, "", cleanerIds.get(random.nextInt(CLEANERS)));
+                requestedSlots.add(key(dto.getCleanerID(), dto.getDate(), dto.getTime()));
+                start.await();
+                try {
+                    service.createReservation(client.getUid(), dto);
+                    booked.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(activeBookings.values()).allMatch(count -> count == 1);
+        assertThat(activeBookings.keySet()).isEqualTo(requestedSlots);
+        assertThat(booked.get()).isEqualTo(requestedSlots.size());
+        assertThat(booked.get() + conflicts.get()).isEqualTo(REQUESTS);
+    }
+
+    private static ReservationRepository inMemoryReservations(Map<String, Integer> activeBookings) {
+        ReservationRepository repository = mock(ReservationRepository.class, withSettings().stubOnly());
+        when(repository.existsActiveBooking(any(), any(), any())).thenAnswer(invocation -> {
+            boolean taken = activeBookings.containsKey(key(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+            // widen the gap between check and insert so an unguarded race would show up
+            LockSupport.parkNanos(20_000);
+            return taken;
+        });
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            ReservationEntity reservation = invocation.getArgument(0);
+            reservation.setRid(UUID.randomUUID());
+            activeBookings.merge(key(reservation.getCleaner().getUid(), reservation.getDate(), reservation.getTime()), 1, Integer::sum);
+            return reservation;
+        });
+        return repository;
+    }
+
+    private static UsersEntity user() {
+        UsersEntity user = new UsersEntity();
+        user.setUid(UUID.randomUUID());
+        user.setFirstName("Stress");
+        user.setLastName("Test");
+        return user;
+    }
+
+    private static String key(UUID cleanerId, LocalDate date, LocalTime time) {
+        return cleanerId + "|" + date + "|" + time;
+    }
+}
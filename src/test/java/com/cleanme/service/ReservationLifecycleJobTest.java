@@ -0,0 +1,65 @@
+package com.cleanme.service;
+
+import com.cleanme.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationLifecycleJobTest {
+
+    private static final int CHUNK = 100;
+    private static final int MAX_CHUNKS = 5;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReservationLifecycleJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ReservationLifecycleJob(reservationRepository, transactionManager, meterRegistry, 60, CHUNK, MAX_CHUNKS);
+    }
+
+    @Test
+    void run_drainsInChunksUntilAShortOneAndRecordsMetrics() {
+        when(reservationRepository.finishEndedBefore(any(), any(), eq(CHUNK), eq("FINISHED"))).thenReturn(CHUNK, CHUNK, 42);
+        when(reservationRepository.expirePendingStartedBefore(any(), any(), eq(CHUNK), eq("CANCELLED"))).thenReturn(7);
+
+        job.run();
+
+        verify(reservationRepository, times(3)).finishEndedBefore(any(), any(), eq(CHUNK), eq("FINISHED"));
+        verify(reservationRepository, times(1)).expirePendingStartedBefore(any(), any(), eq(CHUNK), eq("CANCELLED"));
+        // one transaction per chunk
+        verify(transactionManager, times(4)).commit(any());
+        assertThat(meterRegistry.get("cleanme.reservations.lifecycle.rows").tag("transition", "finished").counter().count())
+                .isEqualTo(242);
+        assertThat(meterRegistry.get("cleanme.reservations.lifecycle.rows").tag("transition", "expired").counter().count())
+                .isEqualTo(7);
+        assertThat(meterRegistry.get("cleanme.reservations.lifecycle.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_stopsAfterMaxChunksAndLeavesTheRestForTheNextRun() {
+        when(reservationRepository.finishEndedBefore(any(), any(), eq(CHUNK), eq("FINISHED"))).thenReturn(CHUNK);
+        when(reservationRepository.expirePendingStartedBefore(any(), any(), eq(CHUNK), eq("CANCELLED"))).thenReturn(0);
+
+        job.run();
+
+        verify(reservationRepository, times(MAX_CHUNKS)).finishEndedBefore(any(), any(), eq(CHUNK), eq("FINISHED"));
+        assertThat(meterRegistry.get("cleanme.reservations.lifecycle.rows").tag("transition", "finished").counter().count())
+                .isEqualTo(CHUNK * MAX_CHUNKS);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cleanme.service;
+
+import com.cleanme.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationPartitionJobTest {
+
+    private static final YearMonth NOW = YearMonth.of(2025, 6);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReservationPartitionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new ReservationPartitionJob(reservationRepository, transactionManager, meterRegistry, 12, 12);
+    }
+
+    @Test
+    void run_createsPartitionsAheadAndArchivesClosedMonthsPastRetention() {
+        when(reservationRepository.ensurePartitions(LocalDate.of(2025, 6, 1), 13)).thenReturn(1);
+        when(reservationRepository.findPartitionNames()).thenReturn(List.of(
+                "reservations_p2024_04", "reservations_p2024_05", "reservations_p2024_06", "reservations_p2024_07"));
+        when(reservationRepository.archivePartition(LocalDate.of(2024, 4, 1))).thenReturn(true);
+        // May still has an open reservation and stays for a later run
+        when(reservationRepository.archivePartition(LocalDate.of(2024, 5, 1))).thenReturn(false);
+
+        job.run(NOW);
+
+        verify(reservationRepository, never()).archivePartition(LocalDate.of(2024, 6, 1));
+        verify(reservationRepository, never()).archivePartition(LocalDate.of(2024, 7, 1));
+        // one transaction for creation, one for the listing and one per archived month
+        verify(transactionManager, times(4)).commit(any());
+        assertThat(meterRegistry.get("cleanme.reservations.partitions").tag("action", "created").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cleanme.reservations.partitions").tag("action", "archived").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void run_archivesNothingWhileEveryMonthIsWithinRetention() {
+        when(reservationRepository.ensurePartitions(LocalDate.of(2025, 6, 1), 13)).thenReturn(0);
+        when(reservationRepository.findPartitionNames()).thenReturn(List.of("reservations_p2024_06", "reservations_p2025_06"));
+
+        job.run(NOW);
+
+        verify(reservationRepository, never()).archivePartition(any());
+    }
+}
@@ -0,0 +1,360 @@
+package com.cleanme.service;
+
+import com.cleanme.dto.CreateRecurringReservationDto;
+import com.cleanme.dto.CreateReservationDto;
+import com.cleanme.dto.CursorPage;
+import com.cleanme.dto.ReservationDto;
+import com.cleanme.dto.ReservationHistoryFilter;
+import com.cleanme.dto.UpdateReservationDto;
+import com.cleanme.entity.OutboxEventEntity;
+import com.cleanme.entity.ReservationEntity;
+import com.cleanme.entity.ReservationViewEntity;
+import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.RecurrenceFrequency;
+import com.cleanme.enums.ReservationEventType;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.exception.ConflictException;
+import com.cleanme.exception.PreconditionFailedException;
+import com.cleanme.repository.OutboxEventRepository;
+import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
+import com.cleanme.repository.UsersRepository;
+import com.cleanme.utilities.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private UsersRepository usersRepository;
+
+    @Mock
+    private SlotEngine slotEngine;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ReservationViewRepository reservationViewRepository;
+
+    @Mock
+    private CleanerStatsService cleanerStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationService reservationService;
+
+    private final UUID cleanerId = UUID.randomUUID();
+    private final UUID clientId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(reservationRepository, usersRepository, slotEngine, new SlotLocks(),
+                outboxEventRepository, reservationViewRepository, cleanerStatsService, transactionManager);
+    }
+
+    @Test
+    void getBookedTimeSlots_groupsARangeByDayWithOneQuery() {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(reservationRepository.findBookedSlots(cleanerId, from, to)).thenReturn(List.of(
+                slot("2025-06-03", "09:00"),
+                slot("2025-06-03", "14:00"),
+                slot("2025-06-17", "10:30")));
+
+        Map<LocalDate, List<LocalTime>> booked = reservationService.getBookedTimeSlots(cleanerId, from, to);
+
+        assertThat(booked).containsOnlyKeys(LocalDate.of(2025, 6, 3), LocalDate.of(2025, 6, 17));
+        assertThat(booked.get(LocalDate.of(2025, 6, 3))).containsExactly(LocalTime.of(9, 0), LocalTime.of(14, 0));
+        verify(reservationRepository, times(1)).findBookedSlots(any(), any(), any());
+        verify(reservationRepository, never()).findByCleaner_Uid(any());
+    }
+
+    @Test
+    void getBookedTimeSlots_rejectsInvertedOrOversizedRanges() {
+        LocalDate day = LocalDate.of(2025, 6, 1);
+
+        assertThatThrownBy(() -> reservationService.getBookedTimeSlots(cleanerId, day, day.minusDays(1)))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> reservationService.getBookedTimeSlots(cleanerId, day, day.plusDays(ReservationService.MAX_BOOKED_RANGE_DAYS)))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void getBookedTimeSlots_singleDayKeepsTheStringFormat() {
+        LocalDate day = LocalDate.of(2025, 6, 3);
+        when(reservationRepository.findBookedSlots(cleanerId, day, day)).thenReturn(List.of(slot("2025-06-03", "09:00")));
+
+        assertThat(reservationService.getBookedTimeSlots(cleanerId, day)).containsExactly("09:00");
+    }
+
+    @Test
+    void deleteReservation_releasesTheBookedSlot() {
+        ReservationEntity reservation = reservation(clientId, ReservationStatus.CONFIRMED);
+        when(reservationRepository.findReservationEntityByRid(reservation.getRid())).thenReturn(Optional.of(reservation));
+
+        reservationService.deleteReservation(reservation.getRid(), clientId);
+
+        verify(slotEngine).release(cleanerId, reservation.getDate(), reservation.getTime());
+        ArgumentCaptor<OutboxEventEntity> event = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxEventRepository).save(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ReservationEventType.DELETED);
+        assertThat(event.getValue().getReservationId()).isEqualTo(reservation.getRid());
+        assertThat(event.getValue().getCleanerId()).isEqualTo(cleanerId);
+        verify(cleanerStatsService).record(List.of(
+                CleanerStatsService.Change.removed(cleanerId, reservation.getDate(), ReservationStatus.CONFIRMED)));
+    }
+
+    @Test
+    void deleteReservation_leavesSlotsAloneForCancelledReservations() {
+        ReservationEntity reservation = reservation(clientId, ReservationStatus.CANCELLED);
+        when(reservationRepository.findReservationEntityByRid(reservation.getRid())).thenReturn(Optional.of(reservation));
+
+        reservationService.deleteReservation(reservation.getRid(), clientId);
+
+        verifyNoInteractions(slotEngine);
+    }
+
+    @Test
+    void updateReservationDto_rejectsAStaleIfMatchVersion() {
+        ReservationEntity reservation = reservation(clientId, ReservationStatus.PENDING);
+        when(reservationRepository.findReservationEntityByRid(reservation.getRid())).thenReturn(Optional.of(reservation));
+        when(usersRepository.findUsersEntityByUid(cleanerId)).thenReturn(Optional.of(reservation.getCleaner()));
+        UpdateReservationDto dto = new UpdateReservationDto();
+        dto.setCleanerId(cleanerId);
+        dto.setStatus(ReservationStatus.CANCELLED);
+
+        assertThatThrownBy(() -> reservationService.updateReservationDto(reservation.getRid(), clientId, dto, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(reservationRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void changeStatus_reappliesTheTransitionAfterAVersionConflict() {
+        UUID rid = UUID.randomUUID();
+        // every attempt reloads the row, as a new persistence context would
+        when(reservationRepository.findReservationEntityByRid(rid))
+                .thenAnswer(inv -> Optional.of(reservation(rid, clientId, ReservationStatus.PENDING)));
+        when(reservationRepository.saveAndFlush(any(ReservationEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ReservationEntity.class, rid))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        ReservationDto changed = reservationService.changeStatus(rid, cleanerId, ReservationStatus.CANCELLED);
+
+        assertThat(changed.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+        verify(reservationRepository, times(2)).saveAndFlush(any(ReservationEntity.class));
+        verify(transactionManager).commit(any());
+        // the failed attempt rolled back before writing its event
+        verify(outboxEventRepository).save(any());
+    }
+
+    @Test
+    void changeStatus_givesUpAfterRepeatedConflicts() {
+        UUID rid = UUID.randomUUID();
+        when(reservationRepository.findReservationEntityByRid(rid))
+                .thenAnswer(inv -> Optional.of(reservation(rid, clientId, ReservationStatus.PENDING)));
+        when(reservationRepository.saveAndFlush(any(ReservationEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ReservationEntity.class, rid));
+
+        assertThatThrownBy(() -> reservationService.changeStatus(rid, cleanerId, ReservationStatus.CANCELLED))
+                .isInstanceOf(ConflictException.class);
+        verify(reservationRepository, times(ReservationService.MAX_STATUS_ATTEMPTS)).saveAndFlush(any(ReservationEntity.class));
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void createReservation_rejectsATakenSlot() {
+        CreateReservationDto dto = bookingRequest();
+        givenUsers();
+        when(reservationRepository.existsActiveBooking(cleanerId, dto.getDate(), dto.getTime())).thenReturn(true);
+
+        assertThatThrownBy(() -> reservationService.createReservation(clientId, dto)).isInstanceOf(ConflictException.class);
+        verify(reservationRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createReservation_mapsAUniqueIndexViolationToAConflict() {
+        CreateReservationDto dto = bookingRequest();
+        givenUsers();
+        when(reservationRepository.existsActiveBooking(cleanerId, dto.getDate(), dto.getTime())).thenReturn(false);
+        when(reservationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uq_reservations_active_slot"));
+
+        assertThatThrownBy(() -> reservationService.createReservation(clientId, dto)).isInstanceOf(ConflictException.class);
+        verifyNoInteractions(slotEngine);
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void createRecurringReservations_insertsTheWholeSeriesInOneBatch() {
+        givenUsers();
+        CreateRecurringReservationDto dto = new CreateRecurringReservationDto(cleanerId, LocalDate.of(2030, 1, 7),
+                LocalTime.of(9, 0), "Address 1", null, RecurrenceFrequency.BIWEEKLY, 3);
+        when(reservationRepository.findActiveBookingDates(eq(cleanerId), eq(LocalTime.of(9, 0)), anyCollection())).thenReturn(List.of());
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ReservationDto> series = reservationService.createRecurringReservations(clientId, dto);
+
+        assertThat(series).extracting(ReservationDto::getDate)
+                .containsExactly(LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 21), LocalDate.of(2030, 2, 4));
+        verify(reservationRepository, times(1)).findActiveBookingDates(any(), any(), anyCollection());
+        verify(reservationRepository, never()).save(any());
+        verify(slotEngine, times(3)).book(eq(cleanerId), any(), eq(LocalTime.of(9, 0)));
+        verify(outboxEventRepository).saveAll(argThat((List<OutboxEventEntity> events) -> events.size() == 3));
+        // new view rows are persisted without a lookup per row
+        verify(reservationViewRepository).saveAll(argThat((List<ReservationViewEntity> views) ->
+                views.size() == 3 && views.stream().allMatch(ReservationViewEntity::isNew)));
+    }
+
+    @Test
+    void createRecurringReservations_rejectsAnOutOfRangeSeries() {
+        CreateRecurringReservationDto tooLong = new CreateRecurringReservationDto(cleanerId, LocalDate.of(2030, 1, 7),
+                LocalTime.of(9, 0), "Address 1", null, RecurrenceFrequency.WEEKLY, ReservationService.MAX_SERIES_OCCURRENCES + 1);
+        CreateRecurringReservationDto noFrequency = new CreateRecurringReservationDto(cleanerId, LocalDate.of(2030, 1, 7),
+                LocalTime.of(9, 0), "Address 1", null, null, 4);
+
+        assertThatThrownBy(() -> reservationService.createRecurringReservations(clientId, tooLong))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> reservationService.createRecurringReservations(clientId, noFrequency))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(reservationRepository, usersRepository);
+    }
+
+    @Test
+    void createRecurringReservations_rejectsTheSeriesWhenAnyDateIsTaken() {
+        givenUsers();
+        CreateRecurringReservationDto dto = new CreateRecurringReservationDto(cleanerId, LocalDate.of(2030, 1, 7),
+                LocalTime.of(9, 0), "Address 1", null, RecurrenceFrequency.WEEKLY, 4);
+        when(reservationRepository.findActiveBookingDates(eq(cleanerId), eq(LocalTime.of(9, 0)), anyCollection()))
+                .thenReturn(List.of(LocalDate.of(2030, 1, 21)));
+
+        assertThatThrownBy(() -> reservationService.createRecurringReservations(clientId, dto))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("2030-01-21");
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    private CreateReservationDto bookingRequest() {
+        return new CreateReservationDto(LocalDate.of(2030, 1, 7), LocalTime.of(9, 0), "Address 1",
+                ReservationStatus.PENDING, "", cleanerId);
+    }
+
+    private void givenUsers() {
+        UsersEntity client = new UsersEntity();
+        client.setUid(clientId);
+        UsersEntity cleaner = new UsersEntity();
+        cleaner.setUid(cleanerId);
+        when(usersRepository.findUsersEntityByUid(clientId)).thenReturn(Optional.of(client));
+        when(usersRepository.findUsersEntityByUid(cleanerId)).thenReturn(Optional.of(cleaner));
+    }
+
+    @Test
+    void getReservationsPage_seeksPastTheCursorOfThePreviousPage() {
+        ReservationDto newest = listed("2025-06-10", "09:00");
+        ReservationDto older = listed("2025-06-03", "09:00");
+        ReservationDto oldest = listed("2025-05-20", "14:00");
+        ReservationHistoryFilter filter = new ReservationHistoryFilter();
+        filter.setStatus(Set.of(ReservationStatus.CONFIRMED));
+        filter.setSize(2);
+        when(reservationViewRepository.findClientHistoryFirstPage(eq(clientId), eq(Set.of(ReservationStatus.CONFIRMED)),
+                eq(false), any(), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(newest, older, oldest));
+
+        CursorPage<ReservationDto> first = reservationService.getReservationsPage(clientId, filter);
+
+        assertThat(first.getItems()).extracting(ReservationDto::getRid).containsExactly(newest.getRid(), older.getRid());
+        assertThat(first.getNextCursor()).isNotNull();
+
+        filter.setCursor(first.getNextCursor());
+        when(reservationViewRepository.findClientHistoryAfter(eq(clientId), any(), eq(false), any(), any(),
+                eq(older.getDate()), eq(older.getTime()), eq(older.getRid()), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(oldest));
+
+        CursorPage<ReservationDto> second = reservationService.getReservationsPage(clientId, filter);
+
+        assertThat(second.getItems()).extracting(ReservationDto::getRid).containsExactly(oldest.getRid());
+        assertThat(second.getNextCursor()).isNull();
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void getReservationsPage_defaultsToEveryStatusAndAnOpenDateRange() {
+        when(reservationViewRepository.findClientHistoryFirstPage(eq(clientId), eq(EnumSet.allOf(ReservationStatus.class)),
+                eq(true), any(), any(), eq(PageRequest.of(0, CleanerService.DEFAULT_PAGE_SIZE + 1))))
+                .thenReturn(List.of());
+
+        CursorPage<ReservationDto> page = reservationService.getReservationsPage(clientId, new ReservationHistoryFilter());
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getReservationsPage_rejectsInvertedRangesAndForgedCursors() {
+        ReservationHistoryFilter inverted = new ReservationHistoryFilter();
+        inverted.setFrom(LocalDate.of(2025, 6, 2));
+        inverted.setTo(LocalDate.of(2025, 6, 1));
+        ReservationHistoryFilter forged = new ReservationHistoryFilter();
+        forged.setCursor(CursorCodec.encode("yesterday", "09:00", UUID.randomUUID()));
+
+        assertThatThrownBy(() -> reservationService.getReservationsPage(clientId, inverted))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> reservationService.getReservationsPage(clientId, forged))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(reservationViewRepository);
+    }
+
+    private ReservationEntity reservation(UUID clientId, ReservationStatus status) {
+        return reservation(UUID.randomUUID(), clientId, status);
+    }
+
+    private ReservationEntity reservation(UUID rid, UUID clientId, ReservationStatus status) {
+        UsersEntity client = new UsersEntity();
+        client.setUid(clientId);
+        UsersEntity cleaner = new UsersEntity();
+        cleaner.setUid(cleanerId);
+
+        ReservationEntity reservation = new ReservationEntity();
+        reservation.setRid(rid);
+        reservation.setUser(client);
+        reservation.setCleaner(cleaner);
+        reservation.setDate(LocalDate.of(2025, 6, 3));
+        reservation.setTime(LocalTime.of(9, 0));
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private static ReservationDto listed(String date, String time) {
+        return new ReservationDto(UUID.randomUUID(), LocalDate.parse(date), LocalTime.parse(time), "Address 1",
+                ReservationStatus.CONFIRMED, null, "Ena Kovač", "Amar Hadžić", null);
+    }
+
+    private static ReservationRepository.BookedSlotRow slot(String date, String time) {
+        return new ReservationRepository.BookedSlotRow() {
+            public LocalDate getDate() { return LocalDate.parse(date); }
+            public LocalTime getTime() { return LocalTime.parse(time); }
+        };
+    }
+}
@@ -6,7 +6,11 @@ import com.cleanme.dto.ReviewDto;
 import com.cleanme.entity.ReservationEntity;
 import com.cleanme.entity.ReviewEntity;
 import com.cleanme.entity.UsersEntity;
+import com.cleanme.enums.ReservationStatus;
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRatingStatsRepository;
 import com.cleanme.repository.ReservationRepository;
+import com.cleanme.repository.ReservationViewRepository;
 import com.cleanme.repository.ReviewRepository;
 import com.cleanme.repository.UsersRepository;
 
@@ -17,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -34,9 +39,18 @@ class ReviewServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private ReservationViewRepository reservationViewRepository;
+
     @Mock
     private UsersRepository usersRepository;
 
+    @Mock
+    private CleanerRatingStatsRepository cleanerRatingStatsRepository;
+
+    @Mock
+    private CleanerScores cleanerScores;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -94,6 +108,19 @@ class ReviewServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getRating()).isEqualTo(5);
         assertThat(result.getComment()).isEqualTo("Great service");
+        verify(cleanerRatingStatsRepository).adjust(cleanerId, 5, 1);
+        verify(cleanerScores).recordReview(cleanerId, 5);
+    }
+
+    @Test
+    void reviewReservation_rejectsARatingOutsideTheStars() {
+        when(reservationRepository.findReservationEntityByRid(reservationId)).thenReturn(Optional.of(reservation));
+
+        assertThatThrownBy(() -> reviewService.reviewReservation(reservationId,
+                new ReviewDto(null, reservationId, cleanerId, userId, 6, "Too good", null, null)))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(reviewRepository, never()).save(any());
+        verifyNoInteractions(cleanerRatingStatsRepository);
     }
 
     // Test 2: Error path for reviewReservation
@@ -118,6 +145,39 @@ class ReviewServiceTest {
         assertThat(result.get(0).getCleanerName()).isEqualTo("Cleaner Test");
     }
 
+    @Test
+    void getReviewsForCleanerPage_returnsCursorWhenMoreRowsExist() {
+        ReviewDto newest = feedRow(LocalDate.of(2025, 6, 3));
+        ReviewDto older = feedRow(LocalDate.of(2025, 6, 1));
+        ReviewDto oldest = feedRow(LocalDate.of(2025, 5, 20));
+        when(reviewRepository.findCleanerFeedFirstPage(cleanerId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, older, oldest));
+
+        var page = reviewService.getReviewsForCleanerPage(cleanerId, 2, null);
+
+        assertThat(page.getItems()).containsExactly(newest, older);
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(reviewRepository.findCleanerFeedAfter(cleanerId, older.getDate(), older.getId(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(oldest));
+
+        var next = reviewService.getReviewsForCleanerPage(cleanerId, 2, page.getNextCursor());
+
+        assertThat(next.getItems()).containsExactly(oldest);
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getReviewsForCleanerPage_rejectsAMalformedCursor() {
+        assertThatThrownBy(() -> reviewService.getReviewsForCleanerPage(cleanerId, 10, "not-a-cursor"))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(reviewRepository);
+    }
+
+    private ReviewDto feedRow(LocalDate date) {
+        return new ReviewDto(UUID.randomUUID(), UUID.randomUUID(), cleanerId, userId, 5, "Great", date, "Cleaner Test");
+    }
+
     // Test 4: getAllReviewsByUser
     @Test
     void getAllReviewsByUser_success() {
@@ -133,15 +193,75 @@ class ReviewServiceTest {
     // Test 5: getBookingsWithReviewsForUser
     @Test
     void getBookingsWithReviewsForUser_success() {
-        when(usersRepository.findUsersEntityByUid(userId)).thenReturn(Optional.of(user));
-        when(reservationRepository.findByUser_Uid(userId)).thenReturn(List.of(reservation));
-        when(reviewRepository.findByUser(user)).thenReturn(List.of(review));
+        LocalDate date = LocalDate.of(2025, 6, 3);
+        UUID unreviewedId = UUID.randomUUID();
+        when(reservationViewRepository.findBookingsWithReviews(userId))
+                .thenReturn(List.of(bookingRow(reservationId, date, LocalTime.of(10, 0), true),
+                        bookingRow(unreviewedId, date, LocalTime.of(9, 0), false)));
 
         List<BookingWithReviewDto> result = reviewService.getBookingsWithReviewsForUser(userId);
 
-        assertThat(result).hasSize(1);
+        assertThat(result).hasSize(2);
         assertThat(result.get(0).getBookingId()).isEqualTo(reservationId);
+        assertThat(result.get(0).getCleanerName()).isEqualTo("Cleaner Test");
         assertThat(result.get(0).getReview()).isNotNull();
+        assertThat(result.get(0).getReview().getReservationId()).isEqualTo(reservationId);
+        assertThat(result.get(0).getReview().getUserId()).isEqualTo(userId);
+        assertThat(result.get(1).getReview()).isNull();
+        verifyNoInteractions(usersRepository, reviewRepository);
+    }
+
+    @Test
+    void getBookingsWithReviewsPage_returnsCursorWhenMoreRowsExist() {
+        LocalDate date = LocalDate.of(2025, 6, 3);
+        var newest = bookingRow(UUID.randomUUID(), date, LocalTime.of(14, 0), true);
+        var older = bookingRow(UUID.randomUUID(), date, LocalTime.of(10, 0), false);
+        var oldest = bookingRow(UUID.randomUUID(), date.minusDays(1), LocalTime.of(16, 0), false);
+        when(reservationViewRepository.findBookingsWithReviewsFirstPage(userId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, older, oldest));
+
+        var page = reviewService.getBookingsWithReviewsPage(userId, 2, null);
+
+        assertThat(page.getItems()).extracting(BookingWithReviewDto::getBookingId)
+                .containsExactly(newest.getRid(), older.getRid());
+        assertThat(page.getNextCursor()).isNotNull();
+
+        when(reservationViewRepository.findBookingsWithReviewsAfter(userId, date, LocalTime.of(10, 0), older.getRid(),
+                PageRequest.of(0, 3))).thenReturn(List.of(oldest));
+
+        var next = reviewService.getBookingsWithReviewsPage(userId, 2, page.getNextCursor());
+
+        assertThat(next.getItems()).extracting(BookingWithReviewDto::getBookingId).containsExactly(oldest.getRid());
+        assertThat(next.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getBookingsWithReviewsPage_rejectsACursorFromTheReviewFeed() {
+        ReviewDto row = feedRow(LocalDate.of(2025, 6, 3));
+        when(reviewRepository.findCleanerFeedFirstPage(cleanerId, PageRequest.of(0, 2))).thenReturn(List.of(row, row));
+        String feedCursor = reviewService.getReviewsForCleanerPage(cleanerId, 1, null).getNextCursor();
+
+        assertThatThrownBy(() -> reviewService.getBookingsWithReviewsPage(userId, 1, feedCursor))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(reservationViewRepository);
+    }
+
+    private ReservationViewRepository.BookingReviewRow bookingRow(UUID rid, LocalDate date, LocalTime time, boolean reviewed) {
+        UUID reviewRowId = reviewed ? UUID.randomUUID() : null;
+        return new ReservationViewRepository.BookingReviewRow() {
+            public UUID getRid() { return rid; }
+            public LocalDate getDate() { return date; }
+            public LocalTime getTime() { return time; }
+            public String getLocation() { return "Main Street 1"; }
+            public String getComment() { return null; }
+            public ReservationStatus getStatus() { return ReservationStatus.FINISHED; }
+            public UUID getCleanerId() { return cleanerId; }
+            public String getCleanerName() { return "Cleaner Test"; }
+            public UUID getReviewId() { return reviewRowId; }
+            public Integer getRating() { return reviewed ? 5 : null; }
+            public String getReviewComment() { return reviewed ? "Great" : null; }
+            public LocalDate getReviewDate() { return reviewed ? date : null; }
+        };
     }
 
     // Test 6: updateReview
@@ -158,6 +278,10 @@ class ReviewServiceTest {
         verify(reviewRepository).save(any(ReviewEntity.class));
         assertThat(review.getComment()).isEqualTo("Updated comment");
         assertThat(review.getRating()).isEqualTo(4);
+        // the old rating leaves the histogram and the new one enters it
+        verify(cleanerRatingStatsRepository).adjust(cleanerId, 5, -1);
+        verify(cleanerRatingStatsRepository).adjust(cleanerId, 4, 1);
+        verify(cleanerScores).replaceRating(cleanerId, 5, 4);
     }
 
     // Optional: Error path for updateReview
@@ -0,0 +1,128 @@
+package com.cleanme.service;
+
+import com.cleanme.exception.BusinessLogicException;
+import com.cleanme.repository.CleanerRepository;
+import com.cleanme.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotEngineTest {
+
+    @Mock
+    private CleanerRepository cleanerRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private SlotEngine engine;
+
+    private final UUID cleanerId = UUID.randomUUID();
+    private final LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @BeforeEach
+    void setUp() {
+        engine = new SlotEngine(cleanerRepository, reservationRepository, 60, 90, 100, 10);
+    }
+
+    @Test
+    void freeSlots_subtractsBookingsFromAvailability() {
+        givenMondayMorning();
+        when(reservationRepository.findBookedSlots(eq(cleanerId), any(), any())).thenReturn(List.of(booking(monday, "10:00")));
+
+        Map<LocalDate, List<LocalTime>> free = engine.freeSlots(cleanerId, monday, monday.plusDays(6), 30);
+
+        // 09:30 and 10:30 would overlap the 10:00-11:00 booking; 11:30 would run past the end of availability
+        assertThat(free).containsOnlyKeys(monday);
+        assertThat(free.get(monday)).containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+
+    @Test
+    void bookAndRelease_updateALoadedCalendarWithoutQuerying() {
+        givenMondayMorning();
+        when(reservationRepository.findBookedSlots(eq(cleanerId), any(), any())).thenReturn(List.of());
+        engine.freeSlots(cleanerId, monday, monday, 60);
+
+        engine.book(cleanerId, monday, LocalTime.of(9, 0));
+        assertThat(engine.freeSlots(cleanerId, monday, monday, 60).get(monday))
+                .containsExactly(LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        engine.release(cleanerId, monday, LocalTime.of(9, 0));
+        assertThat(engine.freeSlots(cleanerId, monday, monday, 60).get(monday))
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        verify(reservationRepository, times(1)).findBookedSlots(any(), any(), any());
+    }
+
+    @Test
+    void invalidate_reloadsAvailabilityOnNextQuery() {
+        givenMondayMorning();
+        when(reservationRepository.findBookedSlots(eq(cleanerId), any(), any())).thenReturn(List.of());
+        engine.freeSlots(cleanerId, monday, monday, 60);
+
+        engine.invalidate(cleanerId);
+        engine.freeSlots(cleanerId, monday, monday, 60);
+
+        verify(cleanerRepository, times(2)).findSlotsByCleaner(cleanerId);
+    }
+
+    @Test
+    void freeSlots_skipsTodaysStartTimesThatHavePassed() {
+        List<CleanerRepository.CleanerSlotRow> allDay = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            allDay.add(slot(day, "00:00", "23:59"));
+        }
+        when(cleanerRepository.findSlotsByCleaner(cleanerId)).thenReturn(allDay);
+        when(reservationRepository.findBookedSlots(eq(cleanerId), any(), any())).thenReturn(List.of());
+        LocalDate today = LocalDate.now();
+        LocalTime before = LocalTime.now();
+
+        Map<LocalDate, List<LocalTime>> free = engine.freeSlots(cleanerId, today, today.plusDays(1), 30);
+
+        assertThat(free.getOrDefault(today, List.of())).allMatch(start -> start.isAfter(before));
+        assertThat(free.get(today.plusDays(1))).startsWith(LocalTime.MIDNIGHT);
+    }
+
+    @Test
+    void freeSlots_rejectsBadGranularityAndRanges() {
+        assertThatThrownBy(() -> engine.freeSlots(cleanerId, monday, monday, 1))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> engine.freeSlots(cleanerId, monday, monday.minusDays(1), 30))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThatThrownBy(() -> engine.freeSlots(cleanerId, monday, LocalDate.now().plusDays(91), 30))
+                .isInstanceOf(BusinessLogicException.class);
+        verifyNoInteractions(cleanerRepository, reservationRepository);
+    }
+
+    private void givenMondayMorning() {
+        when(cleanerRepository.findSlotsByCleaner(cleanerId)).thenReturn(List.of(slot(DayOfWeek.MONDAY, "09:00", "12:00")));
+    }
+
+    private static CleanerRepository.CleanerSlotRow slot(DayOfWeek day, String start, String end) {
+        return new CleanerRepository.CleanerSlotRow() {
+            public UUID getCleanerId() { return null; }
+            public DayOfWeek getDayOfWeek() { return day; }
+            public LocalTime getStartTime() { return LocalTime.parse(start); }
+            public LocalTime getEndTime() { return LocalTime.parse(end); }
+        };
+    }
+
+    private static ReservationRepository.BookedSlotRow booking(LocalDate date, String time) {
+        return new ReservationRepository.BookedSlotRow() {
+            public LocalDate getDate() { return date; }
+            public LocalTime getTime() { return LocalTime.parse(time); }
+        };
+    }
+}